@@ -0,0 +1,137 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import personal.rendimentoacademico.app.utils.CancellationScope;
+import personal.rendimentoacademico.app.utils.DBUtil;
+import personal.rendimentoacademico.app.utils.SqlSupplier;
+
+/**
+ * Executa operações dos DAOs em virtual threads para as fachadas assíncronas.
+ * <p>
+ * Cada operação roda em uma virtual thread própria, mas no máximo
+ * {@link #getMaxConcurrency()} rodam ao mesmo tempo: uma por conexão de
+ * leitura mais a de escrita. As demais aguardam sem ocupar conexão, então
+ * nenhuma esgota o tempo de espera do pool. Cancelar o future interrompe a
+ * espera e chama Statement.cancel na consulta em andamento.
+ *
+ * @author henri
+ */
+final class AsyncDAOSupport {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static Semaphore permits;
+    private static int maxConcurrency;
+
+    @FunctionalInterface
+    interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private AsyncDAOSupport() {}
+
+    static <T> CompletableFuture<T> supply(SqlSupplier<T> operation) {
+        Semaphore permits;
+        try {
+            permits = permits();
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        AsyncTask<T> task = new AsyncTask<>(operation, permits);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    static CompletableFuture<Void> run(SqlAction action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executor de virtual threads compartilhado, sem o limite de concorrência.
+     */
+    static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * @return Quantidade máxima de operações assíncronas executando ao mesmo tempo
+     */
+    static synchronized int getMaxConcurrency() throws SQLException {
+        permits();
+        return maxConcurrency;
+    }
+
+    private static synchronized Semaphore permits() throws SQLException {
+        if (permits == null) {
+            maxConcurrency = DBUtil.getProfile().poolSize() + 1;
+            permits = new Semaphore(maxConcurrency, true);
+        }
+        return permits;
+    }
+
+    /**
+     * Future que também é a tarefa executada. O cancelamento interrompe a
+     * thread e cancela os statements abertos no escopo da operação.
+     */
+    private static final class AsyncTask<T> extends CompletableFuture<T> implements Runnable {
+        private final SqlSupplier<T> operation;
+        private final Semaphore permits;
+        private final CancellationScope scope = new CancellationScope();
+        private volatile Thread runner;
+
+        AsyncTask(SqlSupplier<T> operation, Semaphore permits) {
+            this.operation = operation;
+            this.permits = permits;
+        }
+
+        @Override
+        public void run() {
+            runner = Thread.currentThread();
+            if (isDone()) {
+                return;
+            }
+
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                completeExceptionally(new CancellationException("Operação cancelada antes de começar."));
+                return;
+            }
+
+            try {
+                complete(scope.run(operation));
+            } catch (Throwable e) {
+                // Se o future foi cancelado, a falha provocada pelo cancelamento é descartada
+                completeExceptionally(e);
+            } finally {
+                permits.release();
+                runner = null;
+                Thread.interrupted();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                scope.cancel();
+                Thread thread = runner;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import personal.rendimentoacademico.app.dao.SemesterDAO.FetchMode;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.model.Semester;
+
+/**
+ * Versão assíncrona de {@link SemesterDAO}. Cada método executa a operação
+ * correspondente em uma virtual thread e devolve um future, que falha com a
+ * mesma SQLException da versão síncrona. Cancelar o future interrompe a
+ * consulta em andamento; escritas ainda na fila são descartadas.
+ *
+ * @author henri
+ */
+public class AsyncSemesterDAO {
+    
+    public static CompletableFuture<Void> save(Semester semester) {
+        return AsyncDAOSupport.run(() -> SemesterDAO.save(semester));
+    }
+    
+    public static CompletableFuture<Void> saveWithSubjects(Semester semester) {
+        return AsyncDAOSupport.run(() -> SemesterDAO.saveWithSubjects(semester));
+    }
+    
+    public static CompletableFuture<Semester> getById(Integer id) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getById(id));
+    }
+    
+    public static CompletableFuture<Semester> getById(Integer id, FetchMode mode) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getById(id, mode));
+    }
+    
+    public static CompletableFuture<List<Semester>> getAll() {
+        return AsyncDAOSupport.supply(SemesterDAO::getAll);
+    }
+    
+    public static CompletableFuture<List<Semester>> getAll(FetchMode mode) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getAll(mode));
+    }
+    
+    public static CompletableFuture<List<Semester>> getPage(Integer afterId, int limit) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getPage(afterId, limit));
+    }
+    
+    public static CompletableFuture<List<Semester>> getPageByNumber(Integer afterNumber, Integer afterId, int limit) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getPageByNumber(afterNumber, afterId, limit));
+    }
+    
+    public static CompletableFuture<Map<Integer, IndexAccumulator>> getCumulativeIndexSums() {
+        return AsyncDAOSupport.supply(SemesterDAO::getCumulativeIndexSums);
+    }
+    
+    public static CompletableFuture<Integer[]> getIndices(int scale) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getIndices(scale));
+    }
+    
+    public static CompletableFuture<Map<Integer, Integer>> getSemesterIndices(int scale) {
+        return AsyncDAOSupport.supply(() -> SemesterDAO.getSemesterIndices(scale));
+    }
+    
+    public static CompletableFuture<Void> update(Semester semester) {
+        return AsyncDAOSupport.run(() -> SemesterDAO.update(semester));
+    }
+    
+    public static CompletableFuture<Void> delete(Integer id) {
+        return AsyncDAOSupport.run(() -> SemesterDAO.delete(id));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Versão assíncrona de {@link SubjectDAO}, com o mesmo comportamento de
+ * {@link AsyncSemesterDAO}.
+ *
+ * @author henri
+ */
+public class AsyncSubjectDAO {
+    
+    public static CompletableFuture<Void> save(Subject subject) {
+        return AsyncDAOSupport.run(() -> SubjectDAO.save(subject));
+    }
+    
+    public static CompletableFuture<Void> saveAll(List<Subject> subjects) {
+        return AsyncDAOSupport.run(() -> SubjectDAO.saveAll(subjects));
+    }
+    
+    public static CompletableFuture<Subject> getById(Integer id) {
+        return AsyncDAOSupport.supply(() -> SubjectDAO.getById(id));
+    }
+    
+    public static CompletableFuture<List<Subject>> getBySemesterId(Integer semesterId) {
+        return AsyncDAOSupport.supply(() -> SubjectDAO.getBySemesterId(semesterId));
+    }
+    
+    public static CompletableFuture<List<Subject>> getPage(Integer afterId, int limit) {
+        return AsyncDAOSupport.supply(() -> SubjectDAO.getPage(afterId, limit));
+    }
+    
+    public static CompletableFuture<List<Subject>> getPageBySemesterNumber(Integer afterNumber, Integer afterId, int limit) {
+        return AsyncDAOSupport.supply(() -> SubjectDAO.getPageBySemesterNumber(afterNumber, afterId, limit));
+    }
+    
+    public static CompletableFuture<Void> update(Subject subject) {
+        return AsyncDAOSupport.run(() -> SubjectDAO.update(subject));
+    }
+    
+    public static CompletableFuture<Void> delete(Integer id) {
+        return AsyncDAOSupport.run(() -> SubjectDAO.delete(id));
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Sessão de trabalho sobre os DAOs (identity map + unit of work).
+ * <p>
+ * Dentro de uma sessão, cada semestre e cada matéria existe uma única vez:
+ * buscar o mesmo ID de novo devolve a mesma instância sem consultar o banco.
+ * As alterações não vão para o banco na hora; a sessão registra o que é
+ * novo, alterado ou removido e grava tudo em {@link #commit()}, em uma única
+ * transação e nesta ordem: inserção de semestres, inserção de matérias,
+ * atualizações de semestres e de matérias, exclusão de matérias e exclusão de
+ * semestres. Se algo falhar, nada é gravado e as pendências continuam
+ * registradas.
+ * <p>
+ * As alterações são detectadas pelo {@code isDirty()} das instâncias do
+ * identity map: as alteradas pelos setters são gravadas no commit mesmo sem
+ * {@link #update}, e só os campos alterados vão para o UPDATE.
+ * <p>
+ * A sessão não é thread-safe: deve ser usada por uma thread de cada vez.
+ *
+ * @author henri
+ */
+public class DAOSession {
+    private final Map<Integer, Semester> semesters = new HashMap<>();
+    private final Map<Integer, Subject> subjects = new HashMap<>();
+
+    // Semestres e matérias não sobrescrevem equals, então os conjuntos são por identidade
+    private final Set<Semester> newSemesters = new LinkedHashSet<>();
+    private final Set<Subject> newSubjects = new LinkedHashSet<>();
+    private final Set<Semester> removedSemesters = new LinkedHashSet<>();
+    private final Set<Subject> removedSubjects = new LinkedHashSet<>();
+
+    /**
+     * Busca o semestre pelo ID, consultando o banco só na primeira vez.
+     * As matérias do semestre são carregadas no primeiro acesso e também
+     * passam pelo identity map.
+     * @return O semestre, ou null se não existir
+     */
+    public Semester getSemester(Integer id) throws SQLException {
+        if (id == null) {
+            throw new IllegalArgumentException("O ID não pode ser null.");
+        }
+        Semester semester = semesters.get(id);
+        if (semester == null) {
+            semester = SemesterDAO.getById(id, SemesterDAO.FetchMode.LAZY);
+            if (semester == null) {
+                return null;
+            }
+            semester.setSubjects(new LazySubjectList(() -> attachAll(SubjectDAO.getBySemesterId(id))));
+            semesters.put(id, semester);
+        }
+        return semester;
+    }
+
+    /**
+     * Busca a matéria pelo ID, consultando o banco só na primeira vez.
+     * @return A matéria, ou null se não existir
+     */
+    public Subject getSubject(Integer id) throws SQLException {
+        if (id == null) {
+            throw new IllegalArgumentException("O ID não pode ser null.");
+        }
+        Subject subject = subjects.get(id);
+        if (subject == null) {
+            subject = SubjectDAO.getById(id);
+            if (subject == null) {
+                return null;
+            }
+            subjects.put(id, subject);
+        }
+        return subject;
+    }
+
+    private List<Subject> attachAll(List<Subject> loaded) {
+        List<Subject> attached = new ArrayList<>(loaded.size());
+        for (Subject subject : loaded) {
+            attached.add(subjects.computeIfAbsent(subject.getId(), id -> subject));
+        }
+        return attached;
+    }
+
+    /**
+     * Registra um semestre novo. As matérias já presentes na lista do
+     * semestre são inseridas junto e passam a apontar para ele.
+     */
+    public void persist(Semester semester) {
+        if (semester.getId() != null) {
+            throw new IllegalArgumentException("O semestre já possui ID; use update.");
+        }
+        removedSemesters.remove(semester);
+        newSemesters.add(semester);
+    }
+
+    /**
+     * Registra uma matéria nova de um semestre que já existe no banco.
+     */
+    public void persist(Subject subject) {
+        if (subject.getId() != null) {
+            throw new IllegalArgumentException("A matéria já possui ID; use update.");
+        }
+        removedSubjects.remove(subject);
+        newSubjects.add(subject);
+    }
+
+    /**
+     * Coloca no identity map um semestre carregado fora da sessão, para que
+     * os campos alterados dele sejam gravados no commit. As instâncias obtidas
+     * pela sessão não precisam disso. Semestres novos já são gravados por inteiro.
+     */
+    public void update(Semester semester) {
+        if (newSemesters.contains(semester)) {
+            return;
+        }
+        attach(semester);
+    }
+
+    public void update(Subject subject) {
+        if (newSubjects.contains(subject)) {
+            return;
+        }
+        attach(subject);
+    }
+
+    /**
+     * Marca o semestre para exclusão. As matérias dele não são excluídas
+     * automaticamente, assim como em {@link SemesterDAO#delete(Integer)}.
+     */
+    public void remove(Semester semester) {
+        if (newSemesters.remove(semester)) {
+            return;
+        }
+        attach(semester);
+        removedSemesters.add(semester);
+    }
+
+    public void remove(Subject subject) {
+        if (newSubjects.remove(subject)) {
+            return;
+        }
+        attach(subject);
+        removedSubjects.add(subject);
+    }
+
+    private void attach(Semester semester) {
+        if (semester.getId() == null) {
+            throw new IllegalArgumentException("O semestre não possui ID; use persist.");
+        }
+        Semester known = semesters.putIfAbsent(semester.getId(), semester);
+        if (known != null && known != semester) {
+            throw new IllegalStateException(String.format(
+                "Outra instância do semestre %d já pertence à sessão.", semester.getId()));
+        }
+    }
+
+    private void attach(Subject subject) {
+        if (subject.getId() == null) {
+            throw new IllegalArgumentException("A matéria não possui ID; use persist.");
+        }
+        Subject known = subjects.putIfAbsent(subject.getId(), subject);
+        if (known != null && known != subject) {
+            throw new IllegalStateException(String.format(
+                "Outra instância da matéria %d já pertence à sessão.", subject.getId()));
+        }
+    }
+
+    /**
+     * @return true se há alterações ainda não gravadas
+     */
+    public boolean hasPendingChanges() {
+        return !newSemesters.isEmpty() || !newSubjects.isEmpty()
+            || !removedSemesters.isEmpty() || !removedSubjects.isEmpty()
+            || !changedSemesters().isEmpty() || !changedSubjects().isEmpty();
+    }
+
+    /**
+     * @return Semestres do identity map com campos alterados, exceto os que
+     * serão excluídos
+     */
+    private List<Semester> changedSemesters() {
+        Set<Semester> changed = new LinkedHashSet<>();
+        for (Semester semester : semesters.values()) {
+            if (semester.isDirty()) {
+                changed.add(semester);
+            }
+        }
+        changed.removeAll(removedSemesters);
+        return new ArrayList<>(changed);
+    }
+
+    private List<Subject> changedSubjects() {
+        Set<Subject> changed = new LinkedHashSet<>();
+        for (Subject subject : subjects.values()) {
+            if (subject.isDirty()) {
+                changed.add(subject);
+            }
+        }
+        changed.removeAll(removedSubjects);
+        return new ArrayList<>(changed);
+    }
+
+    /**
+     * Grava todas as pendências em uma única transação. Os IDs gerados só
+     * são atribuídos depois do commit.
+     */
+    public void commit() throws SQLException {
+        if (!hasPendingChanges()) {
+            return;
+        }
+
+        List<Semester> semestersToInsert = new ArrayList<>(newSemesters);
+        List<Subject> subjectsToInsert = new ArrayList<>(newSubjects);
+        List<Semester> semestersToUpdate = changedSemesters();
+        List<Subject> subjectsToUpdate = changedSubjects();
+        FlushResult result = DBUtil.write(connection -> flush(connection, semestersToInsert, subjectsToInsert,
+            semestersToUpdate, subjectsToUpdate));
+
+        for (int i = 0; i < semestersToInsert.size(); i++) {
+            Semester semester = semestersToInsert.get(i);
+            semester.setId(result.semesterIds()[i]);
+            semester.markClean();
+            List<Subject> owned = subjectsOf(semester);
+            SubjectDAO.assignIds(owned, result.ownedSubjectIds()[i], semester.getId());
+            semesters.put(semester.getId(), semester);
+            owned.forEach(subject -> subjects.put(subject.getId(), subject));
+        }
+        SubjectDAO.assignIds(subjectsToInsert, result.subjectIds(), null);
+        subjectsToInsert.forEach(subject -> subjects.put(subject.getId(), subject));
+        removedSemesters.forEach(semester -> semesters.remove(semester.getId()));
+        removedSubjects.forEach(subject -> subjects.remove(subject.getId()));
+        semestersToUpdate.forEach(Semester::markClean);
+        subjectsToUpdate.forEach(Subject::markClean);
+
+        // Invalida de novo após o commit: uma leitura feita durante a
+        // transação pode ter guardado a versão anterior no cache
+        semestersToUpdate.forEach(semester -> SemesterDAO.invalidateCached(semester.getId()));
+        removedSemesters.forEach(semester -> SemesterDAO.invalidateCached(semester.getId()));
+        subjectsToUpdate.forEach(subject -> SubjectDAO.invalidateCached(subject.getId()));
+        removedSubjects.forEach(subject -> SubjectDAO.invalidateCached(subject.getId()));
+
+        clearPending();
+    }
+
+    private record FlushResult(int[] semesterIds, int[][] ownedSubjectIds, int[] subjectIds) {}
+
+    private FlushResult flush(Connection connection, List<Semester> semestersToInsert, List<Subject> subjectsToInsert,
+            List<Semester> semestersToUpdate, List<Subject> subjectsToUpdate) throws SQLException {
+        int[] semesterIds = new int[semestersToInsert.size()];
+        int[][] ownedSubjectIds = new int[semestersToInsert.size()][];
+        for (int i = 0; i < semestersToInsert.size(); i++) {
+            Semester semester = semestersToInsert.get(i);
+            semesterIds[i] = SemesterDAO.insert(connection, semester);
+            ownedSubjectIds[i] = SubjectDAO.insertBatch(connection, subjectsOf(semester), semesterIds[i]);
+        }
+        int[] subjectIds = SubjectDAO.insertBatch(connection, subjectsToInsert, null);
+
+        for (Semester semester : semestersToUpdate) {
+            SemesterDAO.update(connection, semester);
+        }
+        for (Subject subject : subjectsToUpdate) {
+            SubjectDAO.update(connection, subject);
+        }
+        for (Subject subject : removedSubjects) {
+            SubjectDAO.delete(connection, subject.getId());
+        }
+        for (Semester semester : removedSemesters) {
+            SemesterDAO.delete(connection, semester.getId());
+        }
+
+        return new FlushResult(semesterIds, ownedSubjectIds, subjectIds);
+    }
+
+    private static List<Subject> subjectsOf(Semester semester) {
+        return semester.getSubjects() != null ? semester.getSubjects() : List.of();
+    }
+
+    /**
+     * Descarta as alterações pendentes. As instâncias alteradas saem do
+     * identity map, para que a próxima busca traga os valores do banco; as
+     * demais continuam carregadas.
+     */
+    public void rollback() {
+        changedSemesters().forEach(semester -> semesters.remove(semester.getId()));
+        changedSubjects().forEach(subject -> subjects.remove(subject.getId()));
+        clearPending();
+    }
+
+    /**
+     * Descarta as pendências e esquece todas as instâncias carregadas; a
+     * próxima busca consulta o banco de novo.
+     */
+    public void clear() {
+        clearPending();
+        semesters.clear();
+        subjects.clear();
+    }
+
+    private void clearPending() {
+        newSemesters.clear();
+        newSubjects.clear();
+        removedSemesters.clear();
+        removedSubjects.clear();
+    }
+}
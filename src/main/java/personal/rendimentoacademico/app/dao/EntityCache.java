@@ -0,0 +1,154 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+import personal.rendimentoacademico.app.utils.SqlSupplier;
+
+/**
+ * Cache compartilhado de entidades por ID, usado pelos getById dos DAOs.
+ * <p>
+ * Guarda no máximo {@code maxSize} entidades e descarta a usada há mais tempo
+ * quando passa do limite (LRU). Com TTL positivo, uma entidade mais antiga que
+ * o TTL é descartada no próximo acesso. O cache guarda e devolve cópias, então
+ * alterar o objeto devolvido não altera o que está guardado.
+ * <p>
+ * Os DAOs invalidam a entrada a cada save, update e delete. Uma carga que
+ * começou antes de uma invalidação não é guardada, para que uma leitura
+ * antiga não volte ao cache depois da escrita.
+ *
+ * @author henri
+ */
+public final class EntityCache<T> {
+    private record Entry<T>(T value, long loadedAt) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<T> copier;
+    private final LongSupplier clock;
+    private final Map<Integer, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxSize Quantidade máxima de entidades guardadas
+     * @param ttlMillis Tempo de vida de cada entrada; 0 para não expirar
+     * @param copier Cria uma cópia independente da entidade
+     */
+    public EntityCache(int maxSize, long ttlMillis, UnaryOperator<T> copier) {
+        this(maxSize, ttlMillis, copier, System::nanoTime);
+    }
+
+    EntityCache(int maxSize, long ttlMillis, UnaryOperator<T> copier, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("O tamanho máximo do cache deve ser positivo.");
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("O TTL não pode ser negativo.");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.copier = copier;
+        this.clock = clock;
+    }
+
+    /**
+     * Devolve uma cópia da entidade guardada ou, se não houver, carrega com o
+     * loader e guarda o resultado. Resultados null não são guardados.
+     */
+    public T getOrLoad(int id, SqlSupplier<T> loader) throws SQLException {
+        long stamp;
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(id);
+                expirations++;
+                entry = null;
+            }
+            if (entry != null) {
+                hits++;
+                return copier.apply(entry.value());
+            }
+            misses++;
+            stamp = invalidations;
+        }
+
+        T loaded = loader.get();
+        if (loaded != null) {
+            put(id, loaded, stamp);
+        }
+        return loaded;
+    }
+
+    private synchronized void put(int id, T value, long stamp) {
+        if (stamp != invalidations) {
+            return;
+        }
+        entries.put(id, new Entry<>(copier.apply(value), clock.getAsLong()));
+
+        Iterator<Entry<T>> eldest = entries.values().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private boolean isExpired(Entry<T> entry) {
+        return ttlNanos > 0 && clock.getAsLong() - entry.loadedAt() >= ttlNanos;
+    }
+
+    /**
+     * Remove a entidade do cache e descarta as cargas em andamento.
+     */
+    public synchronized void invalidate(int id) {
+        entries.remove(id);
+        invalidations++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        invalidations++;
+    }
+
+    // Estatísticas
+    public int getMaxSize() {
+        return maxSize;
+    }
+    public long getTtlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+    public synchronized int size() {
+        return entries.size();
+    }
+    public synchronized long getHitCount() {
+        return hits;
+    }
+    public synchronized long getMissCount() {
+        return misses;
+    }
+    /**
+     * @return Entradas descartadas por passar do tamanho máximo
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+    /**
+     * @return Entradas descartadas por passar do TTL
+     */
+    public synchronized long getExpirationCount() {
+        return expirations;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Leitura das somas do IRA e da MP gravadas em index_sums. A tabela é
+ * mantida por triggers a cada insert, update e delete em subject e
+ * semester, então qualquer escrita dos DAOs já a deixa atualizada.
+ *
+ * @author henri
+ */
+public class IndexSumsDAO {
+    private static final String SELECT_SQL = """
+        SELECT ira_numerator, ira_denominator, mp_numerator, mp_denominator
+        FROM index_sums WHERE id = 1
+    """;
+    
+    // Mesmo cálculo dos triggers, do zero, para conferência
+    private static final String RECOMPUTE_SQL = """
+        SELECT
+            COALESCE(SUM(sub.grade * sub.credits * MIN(sem.number, 6)), 0),
+            COALESCE(SUM(sub.credits * MIN(sem.number, 6)), 0),
+            COALESCE(SUM(CASE WHEN sub.mandatory THEN 0 ELSE sub.grade * sub.credits END), 0),
+            COALESCE(SUM(CASE WHEN sub.mandatory THEN 0 ELSE sub.credits END), 0)
+        FROM subject sub
+        JOIN semester sem ON sem.id = sub.semester_id
+    """;
+    
+    /**
+     * @return As somas atuais, lidas de uma única linha
+     */
+    public static IndexAccumulator load() throws SQLException {
+        try (Connection connection = DBUtil.getReadConnection()) {
+            return load(connection);
+        }
+    }
+    
+    static IndexAccumulator load(Connection connection) throws SQLException {
+        return read(connection, SELECT_SQL);
+    }
+    
+    /**
+     * Recalcula as somas percorrendo todas as matérias, sem usar index_sums.
+     * Serve para conferir a tabela; o custo cresce com o histórico.
+     */
+    public static IndexAccumulator recompute() throws SQLException {
+        try (Connection connection = DBUtil.getReadConnection()) {
+            return read(connection, RECOMPUTE_SQL);
+        }
+    }
+    
+    private static IndexAccumulator read(Connection connection, String sql) throws SQLException {
+        try (
+            PreparedStatement statement = connection.prepareStatement(sql);
+            ResultSet result = statement.executeQuery()
+        ) {
+            if (!result.next()) {
+                throw new SQLException("Somas dos índices não encontradas; o banco não foi migrado.");
+            }
+            return new IndexAccumulator(result.getLong(1), result.getLong(2), result.getLong(3), result.getLong(4));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.SqlSupplier;
+
+/**
+ * Lista de matérias de um semestre carregada só no primeiro acesso.
+ * <p>
+ * É colocada em Semester.getSubjects() pelo SemesterDAO no modo
+ * {@link SemesterDAO.FetchMode#LAZY}: telas que só mostram número, créditos e
+ * quantidade de matérias nunca consultam a tabela subject. Qualquer leitura ou
+ * alteração dispara a consulta; depois disso a lista se comporta como uma
+ * ArrayList comum. Falhas na consulta são lançadas como
+ * {@link UncheckedSQLException}.
+ *
+ * @author henri
+ */
+public final class LazySubjectList extends AbstractList<Subject> {
+    private final SqlSupplier<List<Subject>> loader;
+    private volatile List<Subject> loaded;
+
+    LazySubjectList(int semesterId) {
+        this(() -> SubjectDAO.getBySemesterId(semesterId));
+    }
+
+    LazySubjectList(SqlSupplier<List<Subject>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return true se as matérias já foram buscadas no banco
+     */
+    public boolean isLoaded() {
+        return loaded != null;
+    }
+
+    private List<Subject> subjects() {
+        List<Subject> current = loaded;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (loaded == null) {
+                try {
+                    loaded = new ArrayList<>(loader.get());
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException("Falha ao carregar as matérias do semestre.", e);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    public Subject get(int index) {
+        return subjects().get(index);
+    }
+
+    @Override
+    public int size() {
+        return subjects().size();
+    }
+
+    @Override
+    public Subject set(int index, Subject subject) {
+        return subjects().set(index, subject);
+    }
+
+    @Override
+    public void add(int index, Subject subject) {
+        subjects().add(index, subject);
+        modCount++;
+    }
+
+    @Override
+    public Subject remove(int index) {
+        modCount++;
+        return subjects().remove(index);
+    }
+
+    @Override
+    public String toString() {
+        return isLoaded() ? loaded.toString() : "[não carregada]";
+    }
+}
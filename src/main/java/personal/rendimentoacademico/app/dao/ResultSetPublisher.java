@@ -0,0 +1,177 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import personal.rendimentoacademico.app.utils.SqlSupplier;
+
+/**
+ * Publisher que entrega as linhas de uma consulta conforme a demanda do
+ * assinante.
+ * <p>
+ * Cada assinatura abre o próprio stream (e a própria conexão) só no primeiro
+ * request, e lê do ResultSet apenas as linhas pedidas: um assinante lento
+ * segura o cursor em vez de acumular linhas em memória. A entrega roda no
+ * executor informado, uma chamada por vez. Cancelar, completar ou falhar
+ * fecha o stream e devolve a conexão ao pool.
+ *
+ * @author henri
+ */
+final class ResultSetPublisher<T> implements Flow.Publisher<T> {
+    private final SqlSupplier<Stream<T>> opener;
+    private final Executor executor;
+
+    /**
+     * @param opener Abre o stream da consulta; chamado uma vez por assinatura
+     * @param executor Onde as linhas são lidas e entregues ao assinante
+     */
+    ResultSetPublisher(SqlSupplier<Stream<T>> opener, Executor executor) {
+        this.opener = opener;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "O assinante não pode ser null.");
+        subscriber.onSubscribe(new RowSubscription<>(subscriber, opener, executor));
+    }
+
+    private static final class RowSubscription<T> implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final SqlSupplier<Stream<T>> opener;
+        private final Executor executor;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        // Só são acessados dentro de run(), que nunca roda em paralelo
+        private Stream<T> stream;
+        private Spliterator<T> rows;
+        private boolean done;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber, SqlSupplier<Stream<T>> opener, Executor executor) {
+            this.subscriber = subscriber;
+            this.opener = opener;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("A quantidade pedida deve ser positiva.");
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            // Só agenda se nenhuma entrega estiver em andamento; a que está
+            // rodando repete o laço e enxerga a nova demanda
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            if (demand.get() == 0) {
+                return;
+            }
+
+            if (rows == null) {
+                try {
+                    stream = opener.get();
+                    rows = stream.spliterator();
+                } catch (SQLException | RuntimeException e) {
+                    finish();
+                    subscriber.onError(e);
+                    return;
+                }
+            }
+
+            while (demand.get() > 0 && !cancelled) {
+                boolean advanced;
+                try {
+                    advanced = rows.tryAdvance(this::emit);
+                } catch (UncheckedSQLException e) {
+                    finish();
+                    subscriber.onError(e.getCause());
+                    return;
+                } catch (RuntimeException e) {
+                    finish();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (!advanced) {
+                    finish();
+                    subscriber.onComplete();
+                    return;
+                }
+            }
+
+            if (cancelled) {
+                finish();
+            }
+        }
+
+        private void emit(T row) {
+            if (demand.get() != Long.MAX_VALUE) {
+                demand.decrementAndGet();
+            }
+            subscriber.onNext(row);
+        }
+
+        private void finish() {
+            done = true;
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (UncheckedSQLException e) {
+                    System.out.println("Erro ao fechar consulta do publisher! " + e.getMessage());
+                }
+                stream = null;
+                rows = null;
+            }
+        }
+    }
+}
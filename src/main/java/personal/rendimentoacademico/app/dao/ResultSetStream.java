@@ -0,0 +1,129 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Adapta um ResultSet aberto para um Stream preenchido sob demanda.
+ * A conexão, o statement e o ResultSet ficam abertos até o stream ser
+ * fechado ou até a última linha ser lida.
+ *
+ * @author henri
+ */
+final class ResultSetStream {
+    static final int DEFAULT_FETCH_SIZE = 256;
+
+    /**
+     * Lê o próximo elemento a partir do ResultSet, avançando o cursor quantas
+     * vezes precisar. Devolve null quando não há mais elementos.
+     */
+    @FunctionalInterface
+    interface RowReader<T> {
+        T read(ResultSet result) throws SQLException;
+    }
+
+    private ResultSetStream() {}
+
+    /**
+     * Executa a consulta e devolve um stream sobre o resultado.
+     * Em caso de falha ao abrir o cursor, a conexão é fechada antes de
+     * propagar a exceção.
+     */
+    static <T> Stream<T> open(Connection connection, String sql, int fetchSize, RowReader<T> reader) throws SQLException {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("O fetch size não pode ser negativo.");
+        }
+
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            ResultSet result = statement.executeQuery();
+            Cursor<T> cursor = new Cursor<>(connection, statement, result, reader);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (SQLException | RuntimeException e) {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            connection.close();
+            throw e;
+        }
+    }
+
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet result;
+        private final RowReader<T> reader;
+        private boolean closed;
+
+        Cursor(Connection connection, PreparedStatement statement, ResultSet result, RowReader<T> reader) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.connection = connection;
+            this.statement = statement;
+            this.result = result;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+
+            T item;
+            try {
+                item = reader.read(result);
+            } catch (SQLException e) {
+                close();
+                throw new UncheckedSQLException("Falha ao ler linha do banco de dados.", e);
+            }
+
+            if (item == null) {
+                // Libera a conexão assim que o cursor se esgota
+                close();
+                return false;
+            }
+            action.accept(item);
+            return true;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            SQLException failure = null;
+            for (AutoCloseable resource : new AutoCloseable[] {result, statement, connection}) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = new SQLException("Falha ao liberar recursos do stream.", e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw new UncheckedSQLException(failure.getMessage(), failure);
+            }
+        }
+    }
+}
@@ -8,9 +8,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
 import personal.rendimentoacademico.app.model.Semester;
 import personal.rendimentoacademico.app.model.Subject;
 import personal.rendimentoacademico.app.utils.DBUtil;
@@ -20,14 +26,217 @@ import personal.rendimentoacademico.app.utils.DBUtil;
  * @author henri
  */
 public class SemesterDAO {
+    /**
+     * Estratégia para carregar as matérias junto com os semestres.
+     */
+    public enum FetchMode {
+        /** Uma única consulta com LEFT JOIN entre semestre e matéria. */
+        JOIN,
+        /** Uma consulta para os semestres e outra para cada semestre. */
+        SELECT,
+        /**
+         * Só a consulta dos semestres; as matérias de cada um são buscadas
+         * no primeiro acesso a getSubjects() ({@link LazySubjectList}).
+         */
+        LAZY
+    }
+    
+    private static final String SELECT_ALL_JOINED = """
+        SELECT
+            s.id AS semester_id, s.number, s.subject_count, s.total_credits,
+            sub.id AS subject_id, sub.name, sub.code, sub.credits,
+            sub.grade, sub.mandatory
+        FROM semester s
+        LEFT JOIN subject sub ON sub.semester_id = s.id
+        ORDER BY s.number, s.id, sub.id
+    """;
+    
+    private static final String SELECT_BY_ID_JOINED = """
+        SELECT
+            s.id AS semester_id, s.number, s.subject_count, s.total_credits,
+            sub.id AS subject_id, sub.name, sub.code, sub.credits,
+            sub.grade, sub.mandatory
+        FROM semester s
+        LEFT JOIN subject sub ON sub.semester_id = s.id
+        WHERE s.id = ?
+        ORDER BY sub.id
+    """;
+    
+    private static final String SELECT_PAGE_BY_ID = """
+        SELECT
+            s.id AS semester_id, s.number, s.subject_count, s.total_credits,
+            sub.id AS subject_id, sub.name, sub.code, sub.credits,
+            sub.grade, sub.mandatory
+        FROM (
+            SELECT id, number, subject_count, total_credits
+            FROM semester
+            WHERE id > ?
+            ORDER BY id
+            LIMIT ?
+        ) s
+        LEFT JOIN subject sub ON sub.semester_id = s.id
+        ORDER BY s.id, sub.id
+    """;
+    
+    private static final String SELECT_PAGE_BY_NUMBER = """
+        SELECT
+            s.id AS semester_id, s.number, s.subject_count, s.total_credits,
+            sub.id AS subject_id, sub.name, sub.code, sub.credits,
+            sub.grade, sub.mandatory
+        FROM (
+            SELECT id, number, subject_count, total_credits
+            FROM semester
+            WHERE (number, id) > (?, ?)
+            ORDER BY number, id
+            LIMIT ?
+        ) s
+        LEFT JOIN subject sub ON sub.semester_id = s.id
+        ORDER BY s.number, s.id, sub.id
+    """;
+    
+    // Somas de cada semestre acumuladas em ordem de número com funções de
+    // janela; mesmas somas do IndexAccumulator. Semestres sem matérias não entram.
+    private static final String SELECT_CUMULATIVE_INDEX_SUMS = """
+        WITH per_semester AS (
+            SELECT
+                sem.number,
+                SUM(sub.grade * sub.credits) * MIN(sem.number, 6) AS ira_numerator,
+                SUM(sub.credits) * MIN(sem.number, 6) AS ira_denominator,
+                SUM(CASE WHEN sub.mandatory THEN 0 ELSE sub.grade * sub.credits END) AS mp_numerator,
+                SUM(CASE WHEN sub.mandatory THEN 0 ELSE sub.credits END) AS mp_denominator
+            FROM semester sem
+            JOIN subject sub ON sub.semester_id = sem.id
+            GROUP BY sem.id
+        )
+        SELECT
+            number,
+            SUM(ira_numerator) OVER running AS ira_numerator,
+            SUM(ira_denominator) OVER running AS ira_denominator,
+            SUM(mp_numerator) OVER running AS mp_numerator,
+            SUM(mp_denominator) OVER running AS mp_denominator
+        FROM per_semester
+        WINDOW running AS (ORDER BY number ROWS UNBOUNDED PRECEDING)
+        ORDER BY number
+    """;
+    
+    // Agregados ira() e mp() registrados pelo IndexFunctions em cada conexão
+    private static final String SELECT_INDICES = """
+        SELECT
+            ira(sub.credits, sub.grade, sem.number, ?) AS ira,
+            mp(sub.credits, sub.grade, sub.mandatory, ?) AS mp
+        FROM semester sem
+        JOIN subject sub ON sub.semester_id = sem.id
+    """;
+    
+    // Dentro de um semestre o fator é constante, então ira() dá o índice do semestre
+    private static final String SELECT_SEMESTER_INDICES = """
+        SELECT sem.number, ira(sub.credits, sub.grade, sem.number, ?) AS semester_index
+        FROM semester sem
+        JOIN subject sub ON sub.semester_id = sem.id
+        GROUP BY sem.id
+        ORDER BY sem.number, sem.id
+    """;
+    
+    private static final String INSERT_SQL = "INSERT INTO semester (number, subject_count, total_credits) VALUES (?, ?, ?)";
+    
+    private static final String SELECT_BY_ID = """
+        SELECT
+            number, subject_count, total_credits
+        FROM semester WHERE id = ?
+    """;
+    
+    private static final String SELECT_ALL = """
+        SELECT
+            id, number, subject_count, total_credits
+        FROM semester
+        ORDER BY number, id
+    """;
+    
+    // Um UPDATE por combinação de campos alterados, indexado pela máscara de
+    // bits dos campos. O mesmo conjunto gera sempre o mesmo SQL, então cada
+    // combinação ocupa uma única entrada no cache de statements.
+    private static final String[] UPDATE_SQL = new String[1 << Semester.Field.values().length];
+    
+    private static final String DELETE_SQL = "DELETE FROM semester WHERE id = ?";
+    
+    private static volatile EntityCache<Semester> cache;
+    
+    /**
+     * Ativa o cache compartilhado de {@link #getById(Integer)}. Só os dados
+     * do semestre são guardados; as matérias continuam sendo carregadas sob
+     * demanda. Os modos JOIN e SELECT não usam o cache.
+     * @param maxSize Quantidade máxima de semestres guardados
+     * @param ttlMillis Tempo de vida de cada entrada; 0 para não expirar
+     */
+    public static void enableCache(int maxSize, long ttlMillis) {
+        cache = new EntityCache<>(maxSize, ttlMillis, SemesterDAO::copyWithoutSubjects);
+    }
+    
+    public static void disableCache() {
+        cache = null;
+    }
+    
+    /**
+     * @return O cache ativo, para consultar as estatísticas, ou null se desativado
+     */
+    public static EntityCache<Semester> getCache() {
+        return cache;
+    }
+    
+    static void invalidateCached(int id) {
+        EntityCache<Semester> current = cache;
+        if (current != null) {
+            current.invalidate(id);
+        }
+    }
+    
+    private static Semester copyWithoutSubjects(Semester semester) {
+        return loaded(semester.getId(), semester.getNumber(), semester.getSubjectCount(), semester.getTotalCredits(), null);
+    }
+    
+    /**
+     * Cria um semestre que reflete o banco, sem campos marcados como alterados.
+     */
+    private static Semester loaded(int id, int number, int subjectCount, int totalCredits, List<Subject> subjects) {
+        Semester semester = new Semester(id, number, subjectCount, totalCredits, subjects);
+        semester.markClean();
+        return semester;
+    }
+    
     public static void save(Semester semester) throws SQLException {
-        String sql = "INSERT INTO semester (number, subject_count, total_credits) VALUES (?, ?, ?)";
+        semester.setId(DBUtil.write(connection -> insert(connection, semester)));
+        semester.markClean();
+        invalidateCached(semester.getId());
+    }
+    
+    /**
+     * Insere o semestre e todas as suas matérias em uma única transação.
+     * As matérias são gravadas em lote e passam a apontar para o novo
+     * semestre; em caso de falha nada é gravado e nenhum ID é atribuído.
+     */
+    public static void saveWithSubjects(Semester semester) throws SQLException {
+        List<Subject> subjects = semester.getSubjects() != null ? semester.getSubjects() : List.of();
+        
+        // A escrita roda em um savepoint próprio: uma falha desfaz semestre e matérias
+        GeneratedIds ids = DBUtil.write(connection -> {
+            int semesterId = insert(connection, semester);
+            return new GeneratedIds(semesterId, SubjectDAO.insertBatch(connection, subjects, semesterId));
+        });
+        semester.setId(ids.semesterId());
+        semester.markClean();
+        SubjectDAO.assignIds(subjects, ids.subjectIds(), ids.semesterId());
+        invalidateCached(ids.semesterId());
+        for (int subjectId : ids.subjectIds()) {
+            SubjectDAO.invalidateCached(subjectId);
+        }
+    }
+    
+    private record GeneratedIds(int semesterId, int[] subjectIds) {}
+    
+    static int insert(Connection connection, Semester semester) throws SQLException {
         String[] returnedColumns = {"id"};
         
-        try (
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql, returnedColumns)
-        ) {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, returnedColumns)) {
             statement.setInt(1, semester.getNumber());
             statement.setInt(2, semester.getSubjectCount());
             statement.setInt(3, semester.getTotalCredits());
@@ -38,91 +247,380 @@ public class SemesterDAO {
             
             try (ResultSet keys = statement.getGeneratedKeys()) {
                 if (keys.next()) {
-                    semester.setId(keys.getInt("id"));
+                    return keys.getInt(1);
                 } else {
                     throw new SQLException("Falha ao obter ID gerado para o semestre.");
                 }
             }
-            
         }
     }
     
+    /**
+     * Busca o semestre pelo ID. As matérias só são consultadas no primeiro
+     * acesso a getSubjects().
+     * @see #getById(Integer, FetchMode)
+     */
     public static Semester getById(Integer id) throws SQLException {
+        return getById(id, FetchMode.LAZY);
+    }
+    
+    /**
+     * Busca o semestre pelo ID, carregando as matérias conforme o modo.
+     * @param mode JOIN e SELECT carregam as matérias na hora; LAZY adia a
+     * consulta das matérias até o primeiro acesso
+     * @return O semestre, ou null se não existir
+     */
+    public static Semester getById(Integer id, FetchMode mode) throws SQLException {
         if (id == null) {
             throw new IllegalArgumentException("O ID não pode ser null.");
         }
+        if (mode == null) {
+            throw new IllegalArgumentException("O modo de busca não pode ser null.");
+        }
+        if (mode == FetchMode.JOIN) {
+            List<Semester> semesters = getJoined(SELECT_BY_ID_JOINED, id);
+            return semesters.isEmpty() ? null : semesters.get(0);
+        }
+        
+        EntityCache<Semester> current = cache;
+        Semester semester = mode == FetchMode.LAZY && current != null
+            ? current.getOrLoad(id, () -> loadWithoutSubjects(id))
+            : loadWithoutSubjects(id);
+        if (semester == null) {
+            return null;
+        }
+        semester.setSubjects(mode == FetchMode.LAZY ? new LazySubjectList(id) : SubjectDAO.getBySemesterId(id));
         
+        return semester;
+    }
+    
+    private static Semester loadWithoutSubjects(int id) throws SQLException {
         Semester semester = new Semester();
-        String sql = """
-            SELECT
-                number, subjectCount, totalCredits
-            FROM semester WHERE id = ?
-        """;
         
         try (
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql)
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)
         ) {
             statement.setInt(1, id);
             try(ResultSet result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return null;
+                }
+                semester.setId(id);
                 semester.setNumber(result.getInt("number"));
                 semester.setSubjectCount(result.getInt("subject_count"));
                 semester.setTotalCredits(result.getInt("total_credits"));
-                semester.setSubjects(SubjectDAO.getBySemesterId(id));
+                semester.markClean();
             }
-            
         }
         
         return semester;
     }
     
+    /**
+     * Lista todos os semestres com uma única consulta; as matérias de cada
+     * um só são buscadas no primeiro acesso a getSubjects().
+     * @see #getAll(FetchMode)
+     */
     public static List<Semester> getAll() throws SQLException {
+        return getAll(FetchMode.LAZY);
+    }
+    
+    /**
+     * Lista todos os semestres com suas matérias.
+     * @param mode JOIN carrega tudo em uma única consulta; SELECT mantém o
+     * comportamento antigo de uma consulta de matérias por semestre; LAZY
+     * consulta só os semestres e adia as matérias até o primeiro acesso
+     */
+    public static List<Semester> getAll(FetchMode mode) throws SQLException {
+        if (mode == null) {
+            throw new IllegalArgumentException("O modo de busca não pode ser null.");
+        }
+        
+        return switch (mode) {
+            case JOIN -> getAllJoined();
+            case SELECT -> getAllSeparately();
+            case LAZY -> getAllLazy();
+        };
+    }
+    
+    private static List<Semester> getAllJoined() throws SQLException {
+        return getJoined(SELECT_ALL_JOINED);
+    }
+    
+    /**
+     * Página de semestres ordenada por ID, com as matérias de cada um.
+     * Usa paginação por chave (keyset): a consulta busca direto pelo índice
+     * a partir do último ID visto, então o custo não cresce com a página.
+     * @param afterId ID do último semestre da página anterior, ou null para a primeira
+     * @param limit Quantidade máxima de semestres na página
+     */
+    public static List<Semester> getPage(Integer afterId, int limit) throws SQLException {
+        validateLimit(limit);
+        return getJoined(SELECT_PAGE_BY_ID, afterId != null ? afterId : 0, limit);
+    }
+    
+    /**
+     * Página de semestres ordenada por (número, ID), com as matérias de cada um.
+     * @param afterNumber Número do último semestre da página anterior, ou null para a primeira
+     * @param afterId ID do último semestre da página anterior
+     * @param limit Quantidade máxima de semestres na página
+     */
+    public static List<Semester> getPageByNumber(Integer afterNumber, Integer afterId, int limit) throws SQLException {
+        validateLimit(limit);
+        if (afterNumber != null && afterId == null) {
+            throw new IllegalArgumentException("O ID é obrigatório quando o número é informado.");
+        }
+        
+        return afterNumber == null
+            ? getJoined(SELECT_PAGE_BY_NUMBER, Integer.MIN_VALUE, Integer.MIN_VALUE, limit)
+            : getJoined(SELECT_PAGE_BY_NUMBER, afterNumber, afterId, limit);
+    }
+    
+    /**
+     * Somas do IRA e da MP acumuladas após cada semestre, calculadas pelo
+     * banco em uma única consulta.
+     * @return Número do semestre para as somas até ele, em ordem de número
+     */
+    public static Map<Integer, IndexAccumulator> getCumulativeIndexSums() throws SQLException {
+        Map<Integer, IndexAccumulator> sums = new LinkedHashMap<>();
+        try (
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_CUMULATIVE_INDEX_SUMS);
+            ResultSet result = statement.executeQuery()
+        ) {
+            while (result.next()) {
+                sums.put(result.getInt("number"), new IndexAccumulator(
+                    result.getLong("ira_numerator"),
+                    result.getLong("ira_denominator"),
+                    result.getLong("mp_numerator"),
+                    result.getLong("mp_denominator")
+                ));
+            }
+        }
+        return sums;
+    }
+    
+    /**
+     * IRA e MP de todo o histórico calculados pelo banco com os agregados
+     * ira() e mp().
+     * @param scale Fator de ponto fixo dos índices (ex.: 10000)
+     * @return {IRA, MP} multiplicados por scale; null no índice sem créditos
+     */
+    public static Integer[] getIndices(int scale) throws SQLException {
+        validateScale(scale);
+        try (
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_INDICES)
+        ) {
+            statement.setInt(1, scale);
+            statement.setInt(2, scale);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return new Integer[] { getNullableInt(result, "ira"), getNullableInt(result, "mp") };
+            }
+        }
+    }
+    
+    /**
+     * Índice de cada semestre calculado pelo banco com o agregado ira().
+     * Semestres sem matérias não entram.
+     * @param scale Fator de ponto fixo dos índices (ex.: 10000)
+     * @return Número do semestre para o índice multiplicado por scale, em
+     * ordem de número; null quando o semestre não tem créditos
+     */
+    public static Map<Integer, Integer> getSemesterIndices(int scale) throws SQLException {
+        validateScale(scale);
+        Map<Integer, Integer> indices = new LinkedHashMap<>();
+        try (
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_SEMESTER_INDICES)
+        ) {
+            statement.setInt(1, scale);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    indices.put(result.getInt("number"), getNullableInt(result, "semester_index"));
+                }
+            }
+        }
+        return indices;
+    }
+    
+    private static Integer getNullableInt(ResultSet result, String column) throws SQLException {
+        int value = result.getInt(column);
+        return result.wasNull() ? null : value;
+    }
+    
+    private static void validateScale(int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("A escala dos índices deve ser positiva.");
+        }
+    }
+    
+    static void validateLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        }
+    }
+    
+    private static List<Semester> getJoined(String sql, int... parameters) throws SQLException {
         List<Semester> semesters = new ArrayList<>();
+        
         try (
-            Connection connection = DBUtil.getConnection();
-            Statement statement = connection.createStatement();
-            ResultSet result = statement.executeQuery("SELECT * FROM semester")
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(sql)
+        ) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setInt(i + 1, parameters[i]);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                JoinedSemesterReader reader = new JoinedSemesterReader();
+                Semester semester;
+                while ((semester = reader.read(result)) != null) {
+                    semesters.add(semester);
+                }
+            }
+        }
+        
+        return semesters;
+    }
+    
+    public static Stream<Semester> stream() throws SQLException {
+        return stream(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Percorre todos os semestres, com suas matérias, sem carregar a lista
+     * inteira em memória. O stream mantém uma conexão aberta e deve ser
+     * fechado (try-with-resources) se não for consumido até o fim.
+     * @param fetchSize Quantidade de linhas que o driver busca por vez
+     */
+    public static Stream<Semester> stream(int fetchSize) throws SQLException {
+        return ResultSetStream.open(DBUtil.getReadConnection(), SELECT_ALL_JOINED, fetchSize, new JoinedSemesterReader());
+    }
+    
+    public static Flow.Publisher<Semester> publish() {
+        return publish(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Publica todos os semestres, com suas matérias, na ordem de
+     * {@link #stream(int)}. Cada assinatura abre sua própria consulta no
+     * primeiro request e só lê os semestres pedidos; cancelar a assinatura
+     * devolve a conexão imediatamente.
+     * @param fetchSize Quantidade de linhas que o driver busca por vez
+     */
+    public static Flow.Publisher<Semester> publish(int fetchSize) {
+        return new ResultSetPublisher<>(() -> stream(fetchSize), AsyncDAOSupport.executor());
+    }
+    
+    private static List<Semester> getAllSeparately() throws SQLException {
+        List<Semester> semesters = getAllWithoutSubjects();
+        
+        // Só busca as matérias depois de liberar a conexão dos semestres
+        for (Semester semester : semesters) {
+            semester.setSubjects(SubjectDAO.getBySemesterId(semester.getId()));
+        }
+        
+        return semesters;
+    }
+    
+    private static List<Semester> getAllLazy() throws SQLException {
+        List<Semester> semesters = getAllWithoutSubjects();
+        for (Semester semester : semesters) {
+            semester.setSubjects(new LazySubjectList(semester.getId()));
+        }
+        return semesters;
+    }
+    
+    private static List<Semester> getAllWithoutSubjects() throws SQLException {
+        List<Semester> semesters = new ArrayList<>();
+        try (
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+            ResultSet result = statement.executeQuery()
         ) {
             while (result.next()) {
                 int id = result.getInt("id");
                 int number = result.getInt("number");
                 int subject_count = result.getInt("subject_count");
                 int total_credits = result.getInt("total_credits");
-                List<Subject> subjects = SubjectDAO.getBySemesterId(id);
-                Semester semester = new Semester(id, number, subject_count, total_credits, subjects);
-                semesters.add(semester);
+                semesters.add(loaded(id, number, subject_count, total_credits, null));
             }
         }
         
         return semesters;
     }
     
+    /**
+     * Grava apenas os campos do semestre alterados desde a carga; as matérias
+     * não são gravadas. Se nada mudou, não acessa o banco.
+     */
     public static void update(Semester semester) throws SQLException {
         if (semester.getId() == null) {
             throw new IllegalArgumentException("Não é possível alterar um semestre sem ID.");
         }
+        if (!semester.isDirty()) {
+            return;
+        }
         
-        String sql = """
-            UPDATE semester SET
-               number = ?,
-               subject_count = ?,
-               total_credits = ?
-            WHERE id = ?
-        """;
+        DBUtil.write(connection -> {
+            update(connection, semester);
+            return null;
+        });
+        semester.markClean();
+        invalidateCached(semester.getId());
+    }
+    
+    /**
+     * Executa o UPDATE dos campos alterados na conexão informada, sem
+     * controlar a transação. Quem chama faz o markClean depois do commit.
+     */
+    static void update(Connection connection, Semester semester) throws SQLException {
+        Set<Semester.Field> fields = semester.getDirtyFields();
+        if (fields.isEmpty()) {
+            return;
+        }
         
-        try (
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql)
-        ) {
-            statement.setInt(1, semester.getNumber());
-            statement.setInt(2, semester.getSubjectCount());
-            statement.setInt(3, semester.getTotalCredits());
-            statement.setInt(4, semester.getId());
+        try (PreparedStatement statement = connection.prepareStatement(updateSql(fields))) {
+            int index = 1;
+            for (Semester.Field field : fields) {
+                switch (field) {
+                    case NUMBER -> statement.setInt(index++, semester.getNumber());
+                    case SUBJECT_COUNT -> statement.setInt(index++, semester.getSubjectCount());
+                    case TOTAL_CREDITS -> statement.setInt(index++, semester.getTotalCredits());
+                }
+            }
+            statement.setInt(index, semester.getId());
             
             if (statement.executeUpdate() == 0) {
                 throw new SQLException(String.format("Falha ao atualizar semestre de ID %d", semester.getId()));
             }
         }
+        invalidateCached(semester.getId());
+    }
+    
+    private static String updateSql(Set<Semester.Field> fields) {
+        int mask = 0;
+        for (Semester.Field field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        
+        String sql = UPDATE_SQL[mask];
+        if (sql == null) {
+            StringJoiner columns = new StringJoiner(", ", "UPDATE semester SET ", " WHERE id = ?");
+            for (Semester.Field field : fields) {
+                columns.add(switch (field) {
+                    case NUMBER -> "number = ?";
+                    case SUBJECT_COUNT -> "subject_count = ?";
+                    case TOTAL_CREDITS -> "total_credits = ?";
+                });
+            }
+            sql = columns.toString();
+            // Corrida inofensiva: threads concorrentes geram o mesmo texto
+            UPDATE_SQL[mask] = sql;
+        }
+        return sql;
     }
     
     public static void delete(Integer id) throws SQLException {
@@ -130,15 +628,61 @@ public class SemesterDAO {
             throw new IllegalArgumentException("O ID não pode ser null");
         }
         
-        try (
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement("DELETE FROM semester WHERE id = ?")
-        ) {
+        DBUtil.write(connection -> {
+            delete(connection, id);
+            return null;
+        });
+        invalidateCached(id);
+    }
+    
+    static void delete(Connection connection, int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
             statement.setInt(1, id);
             
             if (statement.executeUpdate() == 0) {
                 throw new SQLException(String.format("Semestre %d não encontrado para exclusão", id));
             }
         }
+        invalidateCached(id);
+    }
+    
+    /**
+     * Agrupa as linhas de SELECT_ALL_JOINED em semestres. Como a consulta é
+     * ordenada por semestre, cada chamada consome as linhas de um semestre e
+     * para na primeira linha do seguinte.
+     */
+    private static class JoinedSemesterReader implements ResultSetStream.RowReader<Semester> {
+        private boolean started;
+        private boolean hasRow;
+        
+        @Override
+        public Semester read(ResultSet result) throws SQLException {
+            if (!started) {
+                hasRow = result.next();
+                started = true;
+            }
+            if (!hasRow) {
+                return null;
+            }
+            
+            int semesterId = result.getInt("semester_id");
+            Semester semester = loaded(
+                semesterId,
+                result.getInt("number"),
+                result.getInt("subject_count"),
+                result.getInt("total_credits"),
+                new ArrayList<>()
+            );
+            
+            do {
+                int subjectId = result.getInt("subject_id");
+                if (!result.wasNull()) {
+                    semester.addSubject(SubjectDAO.readSubject(result, subjectId, semesterId));
+                }
+                hasRow = result.next();
+            } while (hasRow && result.getInt("semester_id") == semesterId);
+            
+            return semester;
+        }
     }
 }
@@ -10,6 +10,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+import personal.rendimentoacademico.app.model.Grade;
 import personal.rendimentoacademico.app.model.Subject;
 import personal.rendimentoacademico.app.utils.DBUtil;
 
@@ -18,24 +23,138 @@ import personal.rendimentoacademico.app.utils.DBUtil;
  * @author henri
  */
 public class SubjectDAO {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    
+    private static final String INSERT_SQL = """
+        INSERT INTO subject
+            (name, code, credits, grade, mandatory, semester_id)
+        VALUES (?, ?, ?, ?, ?, ?)
+    """;
+    
+    private static final String SELECT_LAST_INSERT_ROWID = "SELECT last_insert_rowid()";
+    
+    private static final String SELECT_BY_ID = """
+        SELECT
+            name, code, credits,
+            grade, mandatory, semester_id
+        FROM subject
+        WHERE id = ?
+    """;
+    
+    private static final String SELECT_BY_SEMESTER_ID = """
+        SELECT
+            id, name, code, credits,
+            grade, mandatory
+        FROM subject
+        WHERE semester_id = ?
+        ORDER BY id
+    """;
+    
+    private static final String SELECT_PAGE_BY_ID = """
+        SELECT
+            id, name, code, credits,
+            grade, mandatory, semester_id
+        FROM subject
+        WHERE id > ?
+        ORDER BY id
+        LIMIT ?
+    """;
+    
+    private static final String SELECT_PAGE_BY_SEMESTER_NUMBER = """
+        SELECT
+            sub.id, sub.name, sub.code, sub.credits,
+            sub.grade, sub.mandatory, sub.semester_id
+        FROM semester s
+        JOIN subject sub ON sub.semester_id = s.id
+        WHERE (s.number, sub.id) > (?, ?)
+        ORDER BY s.number, sub.id
+        LIMIT ?
+    """;
+    
+    private static final String SELECT_ALL = """
+        SELECT
+            id, name, code, credits,
+            grade, mandatory, semester_id
+        FROM subject
+        ORDER BY id
+    """;
+    
+    // Um UPDATE por combinação de campos alterados, indexado pela máscara de
+    // bits dos campos. O mesmo conjunto gera sempre o mesmo SQL, então cada
+    // combinação ocupa uma única entrada no cache de statements.
+    private static final String[] UPDATE_SQL = new String[1 << Subject.Field.values().length];
+    
+    private static final String DELETE_SQL = "DELETE FROM subject WHERE id = ?";
+    
+    private static volatile int batchSize = DEFAULT_BATCH_SIZE;
+    
+    public static int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Define quantas inserções são acumuladas antes de cada executeBatch.
+     */
+    public static void setBatchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+        }
+        batchSize = size;
+    }
+    
+    private static volatile EntityCache<Subject> cache;
+    
+    /**
+     * Ativa o cache compartilhado de {@link #getById(Integer)}.
+     * @param maxSize Quantidade máxima de matérias guardadas
+     * @param ttlMillis Tempo de vida de cada entrada; 0 para não expirar
+     */
+    public static void enableCache(int maxSize, long ttlMillis) {
+        cache = new EntityCache<>(maxSize, ttlMillis, SubjectDAO::copy);
+    }
+    
+    public static void disableCache() {
+        cache = null;
+    }
+    
+    /**
+     * @return O cache ativo, para consultar as estatísticas, ou null se desativado
+     */
+    public static EntityCache<Subject> getCache() {
+        return cache;
+    }
+    
+    static void invalidateCached(int id) {
+        EntityCache<Subject> current = cache;
+        if (current != null) {
+            current.invalidate(id);
+        }
+    }
+    
+    private static Subject copy(Subject subject) {
+        Subject copy = new Subject();
+        copy.setId(subject.getId());
+        copy.setName(subject.getName());
+        copy.setCode(subject.getCode());
+        copy.setCredits(subject.getCredits());
+        copy.setGrade(subject.getGrade());
+        copy.setMandatory(subject.isMandatory());
+        copy.setSemesterId(subject.getSemesterId());
+        copy.markClean();
+        return copy;
+    }
+    
     public static void save(Subject subject) throws SQLException {
-        String sql = """
-            INSERT INTO subject
-                (name, code, credits, grade, mandatory, semester_id)
-            VALUES (?, ?, ?, ?, ?, ?)
-        """;
+        subject.setId(DBUtil.write(connection -> insert(connection, subject)));
+        subject.markClean();
+        invalidateCached(subject.getId());
+    }
+    
+    static int insert(Connection connection, Subject subject) throws SQLException {
         String[] returnedColumns = {"id"};
         
-        try (
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql, returnedColumns)
-        ) {
-            statement.setString(1, subject.getName());
-            statement.setString(2, subject.getCode());
-            statement.setInt(3, subject.getCredits());
-            statement.setString(4, subject.getGrade());
-            statement.setBoolean(5, subject.isMandatory());
-            statement.setInt(6, subject.getSemesterId());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, returnedColumns)) {
+            bindInsert(statement, subject, subject.getSemesterId());
 
             if (statement.executeUpdate() == 0) {
                 throw new SQLException("Falha ao inserir matéria.");
@@ -43,7 +162,7 @@ public class SubjectDAO {
             
             try (ResultSet keys = statement.getGeneratedKeys()) {
                 if (keys.next()) {
-                    subject.setId(keys.getInt("id"));
+                    return keys.getInt(1);
                 } else {
                     throw new SQLException("Falha ao obter ID gerado para a matéria");
                 }
@@ -51,37 +170,127 @@ public class SubjectDAO {
         }
     }
     
+    /**
+     * Insere todas as matérias em uma única transação, usando lotes de
+     * {@link #getBatchSize()} inserções. Se qualquer inserção falhar, nenhuma
+     * matéria é gravada e nenhum ID é atribuído.
+     */
+    public static void saveAll(List<Subject> subjects) throws SQLException {
+        if (subjects == null) {
+            throw new IllegalArgumentException("A lista de matérias não pode ser null.");
+        }
+        if (subjects.isEmpty()) {
+            return;
+        }
+        
+        // A escrita roda em um savepoint próprio: uma falha desfaz o lote inteiro
+        int[] ids = DBUtil.write(connection -> insertBatch(connection, subjects, null));
+        assignIds(subjects, ids, null);
+        for (int id : ids) {
+            invalidateCached(id);
+        }
+    }
+    
+    /**
+     * Insere as matérias em lotes na conexão informada, sem controlar a
+     * transação. Os IDs gerados são devolvidos na ordem da lista e só devem
+     * ser atribuídos depois do commit.
+     * @param semesterId Semestre a gravar em todas as matérias, ou null para
+     * usar o semestre de cada matéria
+     */
+    static int[] insertBatch(Connection connection, List<Subject> subjects, Integer semesterId) throws SQLException {
+        int[] ids = new int[subjects.size()];
+        int size = batchSize;
+        
+        try (
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            PreparedStatement lastId = connection.prepareStatement(SELECT_LAST_INSERT_ROWID)
+        ) {
+            for (int start = 0; start < subjects.size(); start += size) {
+                int end = Math.min(start + size, subjects.size());
+                for (int i = start; i < end; i++) {
+                    Subject subject = subjects.get(i);
+                    bindInsert(statement, subject, semesterId != null ? semesterId : subject.getSemesterId());
+                    statement.addBatch();
+                }
+                
+                for (int count : statement.executeBatch()) {
+                    if (count == 0) {
+                        throw new SQLException("Falha ao inserir matéria em lote.");
+                    }
+                }
+                
+                // Dentro da transação a escrita é exclusiva, então os IDs do
+                // lote são consecutivos e terminam em last_insert_rowid()
+                try (ResultSet result = lastId.executeQuery()) {
+                    if (!result.next()) {
+                        throw new SQLException("Falha ao obter IDs gerados para as matérias");
+                    }
+                    int last = result.getInt(1);
+                    for (int i = start; i < end; i++) {
+                        ids[i] = last - (end - 1 - i);
+                    }
+                }
+            }
+        }
+        
+        return ids;
+    }
+    
+    static void assignIds(List<Subject> subjects, int[] ids, Integer semesterId) {
+        for (int i = 0; i < ids.length; i++) {
+            Subject subject = subjects.get(i);
+            subject.setId(ids[i]);
+            if (semesterId != null) {
+                subject.setSemesterId(semesterId);
+            }
+            subject.markClean();
+        }
+    }
+    
+    private static void bindInsert(PreparedStatement statement, Subject subject, Integer semesterId) throws SQLException {
+        statement.setString(1, subject.getName());
+        statement.setString(2, subject.getCode());
+        statement.setInt(3, subject.getCredits());
+        statement.setInt(4, gradeCode(subject));
+        statement.setBoolean(5, subject.isMandatory());
+        statement.setInt(6, semesterId);
+    }
+    
+    /**
+     * @return O código da menção gravado na coluna grade
+     * @throws SQLException Se a nota da matéria não for uma menção válida
+     */
+    private static int gradeCode(Subject subject) throws SQLException {
+        Grade grade = subject.getGradeValue();
+        if (grade == null) {
+            throw new SQLException(String.format("A menção %s não é válida", subject.getGrade()));
+        }
+        return grade.getCode();
+    }
+    
     public static Subject getById(Integer id) throws SQLException {
         if (id == null) {
             throw new IllegalArgumentException("O ID não pode ser null.");
         }
         
-        Subject subject = new Subject();
-        String sql = """
-            SELECT 
-                name, code, credits,
-                grade, mandatory, semester_id
-            FROM subject
-            WHERE id = ?
-        """;
-        
+        EntityCache<Subject> current = cache;
+        return current != null ? current.getOrLoad(id, () -> load(id)) : load(id);
+    }
+    
+    private static Subject load(int id) throws SQLException {
         try(
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql)
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)
         ) {
             statement.setInt(1, id);
             try (ResultSet result = statement.executeQuery()) {
-                subject.setId(id);
-                subject.setName(result.getString("name"));
-                subject.setCode(result.getString("code"));
-                subject.setCredits(result.getInt("credits"));
-                subject.setGrade(result.getString("grade"));
-                subject.setMandatory(result.getBoolean("mandatory"));
-                subject.setSemesterId(result.getInt("semester_id"));
+                if (!result.next()) {
+                    return null;
+                }
+                return readSubject(result, id, result.getInt("semester_id"));
             }
         }
-        
-        return subject;
     }
     
     public static List<Subject> getBySemesterId(Integer semesterId) throws SQLException {
@@ -90,27 +299,15 @@ public class SubjectDAO {
         }
         
         List<Subject> subjects = new ArrayList<>();
-        String sql = """
-            SELECT
-                number, subjectCount, totalCredits
-            FROM subject
-            WHERE semester_id = ?
-        """;
         
         try (
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql)
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_SEMESTER_ID)
         ) {
             statement.setInt(1, semesterId);
             try (ResultSet result = statement.executeQuery()) {
                 while (result.next()) {
-                    String name = result.getString("name");
-                    String code = result.getString("code");
-                    int credits = result.getInt("credits");
-                    String grade = result.getString("grade");
-                    boolean mandatory = result.getBoolean("mandatory");
-                    int semester_id = result.getInt("semester_id");
-                    subjects.add(new Subject(semesterId, name, code, credits, grade, mandatory, semester_id));
+                    subjects.add(readSubject(result, result.getInt("id"), semesterId));
                 }
             }
         }
@@ -118,38 +315,195 @@ public class SubjectDAO {
         return subjects;
     }
     
+    /**
+     * Página de matérias ordenada por ID, usando paginação por chave (keyset).
+     * @param afterId ID da última matéria da página anterior, ou null para a primeira
+     * @param limit Quantidade máxima de matérias na página
+     */
+    public static List<Subject> getPage(Integer afterId, int limit) throws SQLException {
+        SemesterDAO.validateLimit(limit);
+        return getPage(SELECT_PAGE_BY_ID, afterId != null ? afterId : 0, limit);
+    }
+    
+    /**
+     * Página de matérias ordenada pelo número do semestre e depois pelo ID da
+     * matéria, usando paginação por chave (keyset).
+     * @param afterNumber Número do semestre da última matéria da página anterior,
+     * ou null para a primeira
+     * @param afterId ID da última matéria da página anterior
+     * @param limit Quantidade máxima de matérias na página
+     */
+    public static List<Subject> getPageBySemesterNumber(Integer afterNumber, Integer afterId, int limit) throws SQLException {
+        SemesterDAO.validateLimit(limit);
+        if (afterNumber != null && afterId == null) {
+            throw new IllegalArgumentException("O ID é obrigatório quando o número é informado.");
+        }
+        
+        return afterNumber == null
+            ? getPage(SELECT_PAGE_BY_SEMESTER_NUMBER, Integer.MIN_VALUE, Integer.MIN_VALUE, limit)
+            : getPage(SELECT_PAGE_BY_SEMESTER_NUMBER, afterNumber, afterId, limit);
+    }
+    
+    private static List<Subject> getPage(String sql, int... parameters) throws SQLException {
+        List<Subject> subjects = new ArrayList<>();
+        
+        try (
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(sql)
+        ) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setInt(i + 1, parameters[i]);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    subjects.add(readSubject(result, result.getInt("id"), result.getInt("semester_id")));
+                }
+            }
+        }
+        
+        return subjects;
+    }
+    
+    public static Stream<Subject> streamAll() throws SQLException {
+        return streamAll(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Percorre todas as matérias, ordenadas por ID, sem carregar a lista
+     * inteira em memória. O stream mantém uma conexão aberta e deve ser
+     * fechado (try-with-resources) se não for consumido até o fim.
+     * @param fetchSize Quantidade de linhas que o driver busca por vez
+     */
+    public static Stream<Subject> streamAll(int fetchSize) throws SQLException {
+        return ResultSetStream.open(DBUtil.getReadConnection(), SELECT_ALL, fetchSize, result -> result.next()
+            ? readSubject(result, result.getInt("id"), result.getInt("semester_id"))
+            : null
+        );
+    }
+    
+    public static Flow.Publisher<Subject> publishAll() {
+        return publishAll(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Publica todas as matérias, ordenadas por ID, lendo do banco apenas as
+     * linhas pedidas pelo assinante.
+     * @param fetchSize Quantidade de linhas que o driver busca por vez
+     * @see SemesterDAO#publish(int)
+     */
+    public static Flow.Publisher<Subject> publishAll(int fetchSize) {
+        return new ResultSetPublisher<>(() -> streamAll(fetchSize), AsyncDAOSupport.executor());
+    }
+    
+    /**
+     * Monta uma matéria a partir da linha atual do ResultSet.
+     * Lê as colunas name, code, credits, grade e mandatory pelo nome, com a
+     * menção gravada como código (ver {@link Grade#getCode()}); o ID e o
+     * semestre são informados por quem chama, pois podem vir de colunas com alias.
+     */
+    static Subject readSubject(ResultSet result, int id, int semesterId) throws SQLException {
+        Subject subject = new Subject(
+            id,
+            result.getString("name"),
+            result.getString("code"),
+            result.getInt("credits"),
+            readGrade(result),
+            result.getBoolean("mandatory"),
+            semesterId
+        );
+        subject.markClean();
+        return subject;
+    }
+    
+    private static String readGrade(ResultSet result) throws SQLException {
+        int code = result.getInt("grade");
+        Grade grade = Grade.fromDatabaseCode(code);
+        if (grade == null) {
+            throw new SQLException(String.format("Código de menção %d inválido no banco", code));
+        }
+        return grade.name();
+    }
+    
+    /**
+     * Grava apenas os campos alterados desde a carga. Se nada mudou, não
+     * acessa o banco.
+     */
     public static void update(Subject subject) throws SQLException {
         if (subject.getId() == null) {
             throw new IllegalArgumentException("Não é possível alterar uma matéria sem ID.");
         }
+        if (!subject.isDirty()) {
+            return;
+        }
         
-        String sql = """
-            UPDATE subject SET
-                name = ?, %s
-                credits = ?,
-                grade = ?,
-                mandatory = ?,
-                semester_id = ?
-            WHERE id = ?
-            """.formatted(subject.getCode() != null ? "code = ?," : "");
+        DBUtil.write(connection -> {
+            update(connection, subject);
+            return null;
+        });
+        subject.markClean();
+        invalidateCached(subject.getId());
+    }
+    
+    /**
+     * Executa o UPDATE dos campos alterados na conexão informada, sem
+     * controlar a transação. A matéria continua marcada como alterada: quem
+     * chama faz o markClean depois do commit.
+     */
+    static void update(Connection connection, Subject subject) throws SQLException {
+        Set<Subject.Field> fields = subject.getDirtyFields();
+        if (fields.isEmpty()) {
+            return;
+        }
         
-        try(
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement(sql)
-        ) {
-            int pos = 1;
-            statement.setString(pos++, subject.getName());
-            if (subject.getCode() != null) { statement.setString(pos++, subject.getCode()); }
-            statement.setInt(pos++, subject.getCredits());
-            statement.setString(pos++, subject.getGrade());
-            statement.setBoolean(pos++, subject.isMandatory());
-            statement.setInt(pos++, subject.getSemesterId());
-            statement.setInt(pos++, subject.getId());
+        try (PreparedStatement statement = connection.prepareStatement(updateSql(fields))) {
+            int index = 1;
+            for (Subject.Field field : fields) {
+                switch (field) {
+                    case NAME -> statement.setString(index++, subject.getName());
+                    case CODE -> statement.setString(index++, subject.getCode());
+                    case CREDITS -> statement.setInt(index++, subject.getCredits());
+                    case GRADE -> statement.setInt(index++, gradeCode(subject));
+                    case MANDATORY -> statement.setBoolean(index++, subject.isMandatory());
+                    case SEMESTER_ID -> statement.setInt(index++, subject.getSemesterId());
+                }
+            }
+            statement.setInt(index, subject.getId());
             
             if (statement.executeUpdate() == 0) {
                 throw new SQLException(String.format("Falha ao atualizar matéria de ID %d.", subject.getId()));
             }
         }
+        invalidateCached(subject.getId());
+    }
+    
+    private static String updateSql(Set<Subject.Field> fields) {
+        int mask = 0;
+        for (Subject.Field field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        
+        String sql = UPDATE_SQL[mask];
+        if (sql == null) {
+            StringJoiner columns = new StringJoiner(", ", "UPDATE subject SET ", " WHERE id = ?");
+            for (Subject.Field field : fields) {
+                columns.add(column(field) + " = ?");
+            }
+            sql = columns.toString();
+            // Corrida inofensiva: threads concorrentes geram o mesmo texto
+            UPDATE_SQL[mask] = sql;
+        }
+        return sql;
+    }
+    
+    private static String column(Subject.Field field) {
+        return switch (field) {
+            case NAME -> "name";
+            case CODE -> "code";
+            case CREDITS -> "credits";
+            case GRADE -> "grade";
+            case MANDATORY -> "mandatory";
+            case SEMESTER_ID -> "semester_id";
+        };
     }
     
     public static void delete(Integer id) throws SQLException {
@@ -157,14 +511,20 @@ public class SubjectDAO {
             throw new IllegalArgumentException("O ID não pode ser null");
         }
         
-        try(
-            Connection connection = DBUtil.getConnection();
-            PreparedStatement statement = connection.prepareStatement("DELETE FROM subject WHERE id = ?")
-        ) {
+        DBUtil.write(connection -> {
+            delete(connection, id);
+            return null;
+        });
+        invalidateCached(id);
+    }
+    
+    static void delete(Connection connection, int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
             statement.setInt(1, id);
             if (statement.executeUpdate() == 0) {
-                throw new SQLException(String.format("Semestre %d não encontrado para exclusão", id));
+                throw new SQLException(String.format("Disciplina %d não encontrada para exclusão", id));
             }
         }
+        invalidateCached(id);
     }
 }
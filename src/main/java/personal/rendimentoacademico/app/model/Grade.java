@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Enum.java to edit this template
+ */
+package personal.rendimentoacademico.app.model;
+
+/**
+ * Menções da UnB com o peso usado no cálculo dos índices e o código gravado
+ * na coluna subject.grade.
+ * @author henri
+ */
+public enum Grade {
+    SS(5),
+    MS(4),
+    MM(3),
+    MI(2),
+    II(1),
+    SR(0);
+    
+    // Menor e maior código aceitos pelo CHECK da coluna subject.grade
+    public static final int MIN_CODE = 0;
+    public static final int MAX_CODE = 5;
+    
+    private static final Grade[] BY_CODE = new Grade[MAX_CODE + 1];
+    
+    static {
+        for (Grade grade : values()) {
+            BY_CODE[grade.weight] = grade;
+        }
+    }
+    
+    private final int weight;
+    
+    Grade(int weight) {
+        this.weight = weight;
+    }
+    
+    public int getWeight() {
+        return weight;
+    }
+    
+    /**
+     * Código gravado no banco. É o próprio peso, para que médias
+     * ponderadas possam ser calculadas direto no SQL; não deve mudar, pois
+     * já está gravado nos bancos existentes.
+     */
+    public int getCode() {
+        return weight;
+    }
+    
+    /**
+     * @return true se a menção conta como aprovação (SS, MS ou MM)
+     */
+    public boolean isPassing() {
+        return weight >= MM.weight;
+    }
+    
+    /**
+     * Converte a sigla da menção (ex.: "SS") digitada pelo usuário.
+     * @return A menção, ou null se o texto não for uma menção válida
+     */
+    public static Grade fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        return switch (code) {
+            case "SS" -> SS;
+            case "MS" -> MS;
+            case "MM" -> MM;
+            case "MI" -> MI;
+            case "II" -> II;
+            case "SR" -> SR;
+            default -> null;
+        };
+    }
+    
+    /**
+     * Converte o código gravado na coluna subject.grade.
+     * @return A menção, ou null se o código não existir
+     */
+    public static Grade fromDatabaseCode(int code) {
+        return code >= MIN_CODE && code <= MAX_CODE ? BY_CODE[code] : null;
+    }
+    
+    /**
+     * Como {@link #fromCode(String)}, mas rejeita textos inválidos.
+     * @throws IllegalArgumentException Se o texto não for uma menção válida
+     */
+    public static Grade parse(String code) {
+        Grade grade = fromCode(code);
+        if (grade == null) {
+            throw new IllegalArgumentException(String.format("A menção %s não é válida", code));
+        }
+        return grade;
+    }
+}
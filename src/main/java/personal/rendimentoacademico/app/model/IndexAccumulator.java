@@ -0,0 +1,113 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.model;
+
+/**
+ * Numeradores e denominadores do IRA e da MP, atualizados em O(1) a cada
+ * matéria adicionada ou removida. Uma alteração de matéria é a remoção dos
+ * valores antigos seguida da adição dos novos.
+ * <p>
+ * IRA = iraNumerator / iraDenominator e MP = mpNumerator / mpDenominator;
+ * as divisões ficam com o AcademicIndexEngine. A MP soma só as matérias
+ * não obrigatórias, como no cálculo original.
+ *
+ * @author henri
+ */
+public final class IndexAccumulator {
+    /** A partir do 6º semestre o peso do semestre no IRA deixa de crescer. */
+    public static final int MAX_SEMESTER_FACTOR = 6;
+    
+    private long iraNumerator;
+    private long iraDenominator;
+    private long mpNumerator;
+    private long mpDenominator;
+    
+    public IndexAccumulator() {}
+    
+    public IndexAccumulator(long iraNumerator, long iraDenominator, long mpNumerator, long mpDenominator) {
+        this.iraNumerator = iraNumerator;
+        this.iraDenominator = iraDenominator;
+        this.mpNumerator = mpNumerator;
+        this.mpDenominator = mpDenominator;
+    }
+    
+    public IndexAccumulator(IndexAccumulator other) {
+        this(other.iraNumerator, other.iraDenominator, other.mpNumerator, other.mpDenominator);
+    }
+    
+    public void add(int credits, int weight, int semesterNumber, boolean mandatory) {
+        apply(credits, weight, semesterNumber, mandatory, 1);
+    }
+    
+    public void remove(int credits, int weight, int semesterNumber, boolean mandatory) {
+        apply(credits, weight, semesterNumber, mandatory, -1);
+    }
+    
+    /**
+     * @throws IllegalArgumentException Se a matéria não tiver menção válida
+     */
+    public void add(Subject subject, int semesterNumber) {
+        add(subject.getCredits(), subject.getGradeWeight(), semesterNumber, subject.isMandatory());
+    }
+    
+    /**
+     * @throws IllegalArgumentException Se a matéria não tiver menção válida
+     */
+    public void remove(Subject subject, int semesterNumber) {
+        remove(subject.getCredits(), subject.getGradeWeight(), semesterNumber, subject.isMandatory());
+    }
+    
+    public void add(IndexAccumulator other) {
+        iraNumerator += other.iraNumerator;
+        iraDenominator += other.iraDenominator;
+        mpNumerator += other.mpNumerator;
+        mpDenominator += other.mpDenominator;
+    }
+    
+    private void apply(int credits, int weight, int semesterNumber, boolean mandatory, int sign) {
+        long weighted = (long) weight * credits * sign;
+        int factor = semesterFactor(semesterNumber);
+        iraNumerator += weighted * factor;
+        iraDenominator += (long) credits * factor * sign;
+        if (!mandatory) {
+            mpNumerator += weighted;
+            mpDenominator += (long) credits * sign;
+        }
+    }
+    
+    public static int semesterFactor(int semesterNumber) {
+        return Math.min(semesterNumber, MAX_SEMESTER_FACTOR);
+    }
+    
+    public long getIraNumerator() {
+        return iraNumerator;
+    }
+    public long getIraDenominator() {
+        return iraDenominator;
+    }
+    public long getMpNumerator() {
+        return mpNumerator;
+    }
+    public long getMpDenominator() {
+        return mpDenominator;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof IndexAccumulator other
+            && iraNumerator == other.iraNumerator && iraDenominator == other.iraDenominator
+            && mpNumerator == other.mpNumerator && mpDenominator == other.mpDenominator;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(iraNumerator) * 31 + Long.hashCode(iraDenominator);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("IRA %d/%d, MP %d/%d", iraNumerator, iraDenominator, mpNumerator, mpDenominator);
+    }
+}
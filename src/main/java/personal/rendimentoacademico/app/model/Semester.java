@@ -4,18 +4,30 @@
  */
 package personal.rendimentoacademico.app.model;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  *
  * @author henri
  */
 public class Semester {
+    /**
+     * Campos gravados no banco, na ordem das colunas. As matérias não entram:
+     * são gravadas pelo SubjectDAO.
+     */
+    public enum Field { NUMBER, SUBJECT_COUNT, TOTAL_CREDITS }
+    
     private Integer id;
     private int number;
     private int subjectCount;
     private int totalCredits;
     private List<Subject> subjects;
+    // Somas dos índices das matérias; null enquanto não forem pedidas
+    private IndexAccumulator indexSums;
+    private final EnumSet<Field> dirtyFields = EnumSet.noneOf(Field.class);
     
     public Semester() {}
 
@@ -25,6 +37,8 @@ public class Semester {
         this.subjectCount = subjectCount;
         this.totalCredits = totalCredits;
         this.subjects = subjects;
+        // Sem histórico de carga: todos os campos contam como alterados
+        this.dirtyFields.addAll(EnumSet.allOf(Field.class));
     }
 
     public Semester(int number, int subjectCount, int totalCredits, List<Subject> subjects) {
@@ -53,23 +67,88 @@ public class Semester {
         this.id = id;
     }
     public void setNumber(int number) {
+        markDirty(Field.NUMBER, this.number != number);
+        if (this.number != number) {
+            indexSums = null;
+        }
         this.number = number;
     }
     public void setSubjectCount(int subjectCount) {
+        markDirty(Field.SUBJECT_COUNT, this.subjectCount != subjectCount);
         this.subjectCount = subjectCount;
     }
     public void setTotalCredits(int totalCredits) {
+        markDirty(Field.TOTAL_CREDITS, this.totalCredits != totalCredits);
         this.totalCredits = totalCredits;
     }
     public void setSubjects(List<Subject> subjects) {
         this.subjects = subjects;
+        this.indexSums = null;
+    }
+
+    // Controle de alterações
+    private void markDirty(Field field, boolean changed) {
+        if (changed) {
+            dirtyFields.add(field);
+        }
+    }
+    /**
+     * @return Campos alterados desde a carga ou desde o último {@link #markClean()}
+     */
+    public Set<Field> getDirtyFields() {
+        return Collections.unmodifiableSet(EnumSet.copyOf(dirtyFields));
+    }
+    public boolean isDirty() {
+        return !dirtyFields.isEmpty();
+    }
+    /**
+     * Marca o semestre como igual ao banco. Chamado pelo DAO após carregar ou gravar.
+     */
+    public void markClean() {
+        dirtyFields.clear();
     }
 
     // Métodos auxiliares
     public void addSubject(Subject subject) {
         this.subjects.add(subject);
+        if (indexSums != null) {
+            applyToSums(subject, true);
+        }
     }
     public void removeSubject(Subject subject) {
-        this.subjects.remove(subject);
+        if (this.subjects.remove(subject) && indexSums != null) {
+            applyToSums(subject, false);
+        }
+    }
+    
+    /**
+     * Somas do IRA e da MP das matérias deste semestre. São calculadas no
+     * primeiro pedido e depois mantidas por addSubject e removeSubject.
+     * Alterações feitas direto em uma matéria já adicionada não são vistas.
+     * @return Uma cópia das somas
+     * @throws IllegalArgumentException Se alguma matéria não tiver menção válida
+     */
+    public IndexAccumulator getIndexSums() {
+        if (indexSums == null) {
+            IndexAccumulator sums = new IndexAccumulator();
+            if (subjects != null) {
+                for (Subject subject : subjects) {
+                    sums.add(subject, number);
+                }
+            }
+            indexSums = sums;
+        }
+        return new IndexAccumulator(indexSums);
+    }
+    
+    private void applyToSums(Subject subject, boolean add) {
+        if (subject.getGradeValue() == null) {
+            // Recalcula no próximo pedido, que então aponta a menção inválida
+            indexSums = null;
+        } else if (add) {
+            indexSums.add(subject, number);
+        } else {
+            indexSums.remove(subject, number);
+        }
     }
 }
@@ -4,18 +4,32 @@
  */
 package personal.rendimentoacademico.app.model;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  *
  * @author henri
  */
 public class Subject {
+    /**
+     * Campos gravados no banco, na ordem das colunas. Usados para saber o
+     * que mudou desde que a matéria foi carregada.
+     */
+    public enum Field { NAME, CODE, CREDITS, GRADE, MANDATORY, SEMESTER_ID }
+    
     private Integer id;
     private String name;
     private String code;
     private int credits;
     private String grade;
+    // Menção já convertida, para o cálculo dos índices não repetir o parse
+    private Grade gradeValue;
     private boolean mandatory;
     private Integer semesterId;
+    private final EnumSet<Field> dirtyFields = EnumSet.noneOf(Field.class);
     
     public Subject() {}
     
@@ -25,8 +39,11 @@ public class Subject {
         this.code = code;
         this.credits = credits;
         this.grade = grade;
+        this.gradeValue = Grade.fromCode(grade);
         this.mandatory = mandatory;
         this.semesterId = semesterId;
+        // Sem histórico de carga: todos os campos contam como alterados
+        this.dirtyFields.addAll(EnumSet.allOf(Field.class));
     }
     
     public Integer getId() {
@@ -44,6 +61,12 @@ public class Subject {
     public String getGrade() {
         return grade;
     }
+    /**
+     * @return A menção convertida, ou null se a nota não for uma menção válida
+     */
+    public Grade getGradeValue() {
+        return gradeValue;
+    }
     public boolean isMandatory() {
         return mandatory;
     }
@@ -55,33 +78,57 @@ public class Subject {
         this.id = id;
     }
     public void setName(String name) {
+        markDirty(Field.NAME, !Objects.equals(this.name, name));
         this.name = name;
     }
     public void setCode(String code) {
+        markDirty(Field.CODE, !Objects.equals(this.code, code));
         this.code = code;
     }
     public void setCredits(int credits) {
+        markDirty(Field.CREDITS, this.credits != credits);
         this.credits = credits;
     }
     public void setGrade(String grade) {
+        markDirty(Field.GRADE, !Objects.equals(this.grade, grade));
         this.grade = grade;
+        this.gradeValue = Grade.fromCode(grade);
     }
     public void setMandatory(boolean mandatory) {
+        markDirty(Field.MANDATORY, this.mandatory != mandatory);
         this.mandatory = mandatory;
     }
     public void setSemesterId(Integer semesterId) {
+        markDirty(Field.SEMESTER_ID, !Objects.equals(this.semesterId, semesterId));
         this.semesterId = semesterId;
     }
     
+    // Controle de alterações
+    private void markDirty(Field field, boolean changed) {
+        if (changed) {
+            dirtyFields.add(field);
+        }
+    }
+    /**
+     * @return Campos alterados desde a carga ou desde o último {@link #markClean()}
+     */
+    public Set<Field> getDirtyFields() {
+        return Collections.unmodifiableSet(EnumSet.copyOf(dirtyFields));
+    }
+    public boolean isDirty() {
+        return !dirtyFields.isEmpty();
+    }
+    /**
+     * Marca a matéria como igual ao banco. Chamado pelo DAO após carregar ou gravar.
+     */
+    public void markClean() {
+        dirtyFields.clear();
+    }
+    
     public int getGradeWeight() throws IllegalArgumentException {
-        return switch(this.grade) {
-            case "SS" -> 5;
-            case "MS" -> 4;
-            case "MM" -> 3;
-            case "MI" -> 2;
-            case "II" -> 1;
-            case "SR" -> 0;
-            default -> throw new IllegalArgumentException(String.format("A menção %s não é válida", this.grade));
-        };
+        if (gradeValue == null) {
+            throw new IllegalArgumentException(String.format("A menção %s não é válida", this.grade));
+        }
+        return gradeValue.getWeight();
     }
 }
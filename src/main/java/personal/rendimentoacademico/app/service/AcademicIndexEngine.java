@@ -0,0 +1,272 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import personal.rendimentoacademico.app.dao.SemesterDAO;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+
+/**
+ * Calcula IRA, MP e o índice de cada semestre em uma única passada sobre
+ * arrays primitivos.
+ * <p>
+ * Fórmulas (c = créditos, w = peso da menção, s = número do semestre):
+ * <ul>
+ * <li>IRA = Σ w·c·min(s, 6) / Σ c·min(s, 6), sobre todas as matérias</li>
+ * <li>MP = Σ w·c / Σ c, sobre as matérias não obrigatórias, como no
+ * cálculo original de RendimentoAcademico</li>
+ * <li>Índice do semestre = Σ w·c / Σ c, sobre as matérias do semestre</li>
+ * <li>IRA e MP acumulados: as fórmulas acima sobre as matérias até o
+ * semestre, vindas das somas parciais da mesma passada</li>
+ * </ul>
+ * As somas são inteiras e exatas; só a divisão final é arredondada, com
+ * {@link #SCALE} casas fixas (índice 4,5 = 45000). A divisão de créditos
+ * por 15 do cálculo original foi removida: ela se cancela na razão e, com
+ * divisão inteira, zerava matérias de menos de 15 créditos.
+ * <p>
+ * Uma instância guarda o resultado do último cálculo e reaproveita seus
+ * buffers, então não aloca depois de aquecida. Não é thread-safe.
+ *
+ * @author henri
+ */
+public final class AcademicIndexEngine {
+    /** Fator do ponto fixo: 4 casas decimais. */
+    public static final int SCALE = 10_000;
+    /** Valor dos índices sem créditos para calcular. */
+    public static final int UNDEFINED = -1;
+    /** A partir do 6º semestre o peso do semestre no IRA deixa de crescer. */
+    public static final int MAX_SEMESTER_FACTOR = IndexAccumulator.MAX_SEMESTER_FACTOR;
+    
+    private static final int MAX_WEIGHT = 5;
+    
+    private int ira = UNDEFINED;
+    private int mp = UNDEFINED;
+    private long totalCredits;
+    private int semesterCount;
+    private int[] semesterNumbers = new int[16];
+    private int[] semesterIndices = new int[16];
+    private int[] cumulativeIra = new int[16];
+    private int[] cumulativeMp = new int[16];
+    
+    public void compute(AcademicRecord record) {
+        compute(record.credits(), record.weights(), record.semesters(), record.mandatory(), record.size());
+    }
+    
+    /**
+     * Calcula os índices das primeiras {@code count} matérias. As matérias
+     * devem estar agrupadas por semestre, em ordem crescente de número.
+     * @throws IllegalArgumentException Se algum valor estiver fora da faixa
+     * ou os semestres estiverem fora de ordem
+     */
+    public void compute(int[] credits, int[] weights, int[] semesters, boolean[] mandatory, int count) {
+        if (count < 0 || credits.length < count || weights.length < count
+                || semesters.length < count || mandatory.length < count) {
+            throw new IllegalArgumentException("Quantidade de matérias maior que os arrays.");
+        }
+        
+        long iraNumerator = 0, iraDenominator = 0;
+        long mpNumerator = 0, mpDenominator = 0;
+        long semesterNumerator = 0, semesterDenominator = 0;
+        long creditSum = 0;
+        int current = 0;
+        semesterCount = 0;
+        
+        for (int i = 0; i < count; i++) {
+            int c = credits[i];
+            int w = weights[i];
+            int s = semesters[i];
+            checkRange(c, w, s, i);
+            if (s != current) {
+                if (s < current) {
+                    throw new IllegalArgumentException("As matérias devem estar ordenadas por semestre.");
+                }
+                if (current != 0) {
+                    addSemester(current, semesterNumerator, semesterDenominator,
+                        iraNumerator, iraDenominator, mpNumerator, mpDenominator);
+                }
+                current = s;
+                semesterNumerator = 0;
+                semesterDenominator = 0;
+            }
+            
+            long weighted = (long) w * c;
+            int factor = Math.min(s, MAX_SEMESTER_FACTOR);
+            iraNumerator += weighted * factor;
+            iraDenominator += (long) c * factor;
+            semesterNumerator += weighted;
+            semesterDenominator += c;
+            creditSum += c;
+            if (!mandatory[i]) {
+                mpNumerator += weighted;
+                mpDenominator += c;
+            }
+        }
+        if (current != 0) {
+            addSemester(current, semesterNumerator, semesterDenominator,
+                iraNumerator, iraDenominator, mpNumerator, mpDenominator);
+        }
+        
+        ira = ratio(iraNumerator, iraDenominator);
+        mp = ratio(mpNumerator, mpDenominator);
+        totalCredits = creditSum;
+    }
+    
+    private void addSemester(int number, long numerator, long denominator,
+            long iraNumerator, long iraDenominator, long mpNumerator, long mpDenominator) {
+        if (semesterCount == semesterNumbers.length) {
+            semesterNumbers = Arrays.copyOf(semesterNumbers, semesterCount * 2);
+            semesterIndices = Arrays.copyOf(semesterIndices, semesterCount * 2);
+            cumulativeIra = Arrays.copyOf(cumulativeIra, semesterCount * 2);
+            cumulativeMp = Arrays.copyOf(cumulativeMp, semesterCount * 2);
+        }
+        semesterNumbers[semesterCount] = number;
+        semesterIndices[semesterCount] = ratio(numerator, denominator);
+        cumulativeIra[semesterCount] = ratio(iraNumerator, iraDenominator);
+        cumulativeMp[semesterCount] = ratio(mpNumerator, mpDenominator);
+        semesterCount++;
+    }
+    
+    /**
+     * Divide com arredondamento para o mais próximo, já na escala.
+     * @return O quociente em {@link #SCALE}, ou {@link #UNDEFINED} se não houver créditos
+     */
+    static int ratio(long numerator, long denominator) {
+        if (denominator == 0) {
+            return UNDEFINED;
+        }
+        return (int) ((numerator * SCALE + denominator / 2) / denominator);
+    }
+    
+    static void validate(int[] credits, int[] weights, int[] semesters, int count) {
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            checkRange(credits[i], weights[i], semesters[i], i);
+            if (semesters[i] < previous) {
+                throw new IllegalArgumentException("As matérias devem estar ordenadas por semestre.");
+            }
+            previous = semesters[i];
+        }
+    }
+    
+    private static void checkRange(int credits, int weight, int semester, int index) {
+        if (credits < 0 || weight < 0 || weight > MAX_WEIGHT || semester < 1) {
+            throw new IllegalArgumentException(String.format("Valores inválidos na matéria de posição %d.", index));
+        }
+    }
+    
+    /**
+     * @return IRA do último cálculo, em {@link #SCALE}, ou {@link #UNDEFINED}
+     */
+    public int getIra() {
+        return ira;
+    }
+    
+    /**
+     * @return MP do último cálculo, em {@link #SCALE}, ou {@link #UNDEFINED}
+     */
+    public int getMp() {
+        return mp;
+    }
+    
+    /**
+     * @return Soma dos créditos de todas as matérias do último cálculo
+     */
+    public long getTotalCredits() {
+        return totalCredits;
+    }
+    
+    /**
+     * @return Quantidade de semestres distintos no último cálculo
+     */
+    public int getSemesterCount() {
+        return semesterCount;
+    }
+    
+    public int getSemesterNumber(int position) {
+        checkPosition(position);
+        return semesterNumbers[position];
+    }
+    
+    /**
+     * @return Índice do semestre na posição informada, em {@link #SCALE}, ou
+     * {@link #UNDEFINED} se o semestre não tiver créditos
+     */
+    public int getSemesterIndex(int position) {
+        checkPosition(position);
+        return semesterIndices[position];
+    }
+    
+    /**
+     * @return IRA acumulado até o fim do semestre na posição informada, em {@link #SCALE}
+     */
+    public int getCumulativeIra(int position) {
+        checkPosition(position);
+        return cumulativeIra[position];
+    }
+    
+    /**
+     * @return MP acumulada até o fim do semestre na posição informada, em
+     * {@link #SCALE}, ou {@link #UNDEFINED} se ainda não houver optativas
+     */
+    public int getCumulativeMp(int position) {
+        checkPosition(position);
+        return cumulativeMp[position];
+    }
+    
+    /**
+     * @return IRA e MP acumulados após cada semestre do último cálculo, em
+     * ordem de número
+     */
+    public List<CumulativeIndex> getCumulativeSeries() {
+        List<CumulativeIndex> series = new ArrayList<>(semesterCount);
+        for (int i = 0; i < semesterCount; i++) {
+            series.add(new CumulativeIndex(semesterNumbers[i], cumulativeIra[i], cumulativeMp[i]));
+        }
+        return series;
+    }
+    
+    /**
+     * Mesma série de {@link #getCumulativeSeries()}, com as somas acumuladas
+     * calculadas no banco por {@link SemesterDAO#getCumulativeIndexSums()}.
+     */
+    public static List<CumulativeIndex> cumulativeSeriesFromDatabase() throws SQLException {
+        List<CumulativeIndex> series = new ArrayList<>();
+        for (Map.Entry<Integer, IndexAccumulator> entry : SemesterDAO.getCumulativeIndexSums().entrySet()) {
+            series.add(new CumulativeIndex(entry.getKey(), ira(entry.getValue()), mp(entry.getValue())));
+        }
+        return series;
+    }
+    
+    private void checkPosition(int position) {
+        if (position < 0 || position >= semesterCount) {
+            throw new IndexOutOfBoundsException(position);
+        }
+    }
+    
+    /**
+     * @return IRA das somas acumuladas, em {@link #SCALE}, ou {@link #UNDEFINED}
+     */
+    public static int ira(IndexAccumulator sums) {
+        return ratio(sums.getIraNumerator(), sums.getIraDenominator());
+    }
+    
+    /**
+     * @return MP das somas acumuladas, em {@link #SCALE}, ou {@link #UNDEFINED}
+     */
+    public static int mp(IndexAccumulator sums) {
+        return ratio(sums.getMpNumerator(), sums.getMpDenominator());
+    }
+    
+    /**
+     * Converte um índice em ponto fixo para exibição.
+     */
+    public static double toDouble(int scaled) {
+        return scaled == UNDEFINED ? Double.NaN : (double) scaled / SCALE;
+    }
+}
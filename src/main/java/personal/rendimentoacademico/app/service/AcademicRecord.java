@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import personal.rendimentoacademico.app.dao.SemesterDAO;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Histórico do aluno em arrays primitivos, uma posição por matéria, na
+ * ordem dos semestres. É o formato lido pelo {@link AcademicIndexEngine}.
+ *
+ * @author henri
+ */
+public final class AcademicRecord {
+    private final int[] credits;
+    private final int[] weights;
+    private final int[] semesters;
+    private final boolean[] mandatory;
+    
+    /**
+     * Os arrays são copiados. As matérias devem estar agrupadas por
+     * semestre, em ordem crescente de número.
+     * @param credits Créditos de cada matéria
+     * @param weights Peso da menção de cada matéria (ver {@link personal.rendimentoacademico.app.model.Grade})
+     * @param semesters Número do semestre de cada matéria
+     * @param mandatory Se cada matéria é obrigatória
+     */
+    public AcademicRecord(int[] credits, int[] weights, int[] semesters, boolean[] mandatory) {
+        if (credits == null || weights == null || semesters == null || mandatory == null) {
+            throw new IllegalArgumentException("Os arrays do histórico não podem ser null.");
+        }
+        int size = credits.length;
+        if (weights.length != size || semesters.length != size || mandatory.length != size) {
+            throw new IllegalArgumentException("Os arrays do histórico devem ter o mesmo tamanho.");
+        }
+        AcademicIndexEngine.validate(credits, weights, semesters, size);
+        
+        this.credits = credits.clone();
+        this.weights = weights.clone();
+        this.semesters = semesters.clone();
+        this.mandatory = mandatory.clone();
+    }
+    
+    /**
+     * Monta o histórico a partir dos semestres carregados, ordenando-os pelo número.
+     * @throws IllegalArgumentException Se alguma matéria não tiver menção válida
+     */
+    public static AcademicRecord of(List<Semester> semesters) {
+        List<Semester> ordered = new ArrayList<>(semesters);
+        ordered.sort(Comparator.comparingInt(Semester::getNumber));
+        
+        int size = 0;
+        for (Semester semester : ordered) {
+            size += semester.getSubjects().size();
+        }
+        
+        int[] credits = new int[size];
+        int[] weights = new int[size];
+        int[] numbers = new int[size];
+        boolean[] mandatory = new boolean[size];
+        int i = 0;
+        for (Semester semester : ordered) {
+            for (Subject subject : semester.getSubjects()) {
+                credits[i] = subject.getCredits();
+                weights[i] = subject.getGradeWeight();
+                numbers[i] = semester.getNumber();
+                mandatory[i] = subject.isMandatory();
+                i++;
+            }
+        }
+        return new AcademicRecord(credits, weights, numbers, mandatory);
+    }
+    
+    /**
+     * Monta o histórico gravado no banco, com as matérias carregadas em uma
+     * única consulta.
+     */
+    public static AcademicRecord load() throws SQLException {
+        return of(SemesterDAO.getAll(SemesterDAO.FetchMode.JOIN));
+    }
+    
+    public int size() {
+        return credits.length;
+    }
+    
+    // Acesso direto aos arrays, sem cópia, para os cálculos do pacote
+    int[] credits() {
+        return credits;
+    }
+    int[] weights() {
+        return weights;
+    }
+    int[] semesters() {
+        return semesters;
+    }
+    boolean[] mandatory() {
+        return mandatory;
+    }
+}
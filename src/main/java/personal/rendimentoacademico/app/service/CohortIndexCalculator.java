@@ -0,0 +1,126 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Calcula IRA, MP e total de créditos de muitos históricos em paralelo. A
+ * lista é dividida ao meio recursivamente em um ForkJoinPool, e as threads
+ * ociosas roubam as metades ainda não processadas.
+ * <p>
+ * Cada trecho usa o seu próprio {@link AcademicIndexEngine} e grava em
+ * posições distintas do resultado, então não há disputa entre threads e o
+ * resultado é idêntico ao do cálculo sequencial.
+ *
+ * @author henri
+ */
+public final class CohortIndexCalculator {
+    /** Trechos por thread na divisão automática, para equilibrar a carga. */
+    private static final int SPLITS_PER_THREAD = 8;
+    
+    private final ForkJoinPool pool;
+    private final int threshold;
+    
+    /**
+     * Usa o pool comum e divide a lista automaticamente.
+     */
+    public CohortIndexCalculator() {
+        this(ForkJoinPool.commonPool(), 0);
+    }
+    
+    /**
+     * @param pool Pool onde o cálculo roda
+     * @param threshold Máximo de históricos calculados sem dividir; 0 para
+     * dividir conforme o paralelismo do pool
+     */
+    public CohortIndexCalculator(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("O pool não pode ser null.");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("O limite de divisão não pode ser negativo.");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+    
+    public CohortResult compute(List<AcademicRecord> records) {
+        if (records == null) {
+            throw new IllegalArgumentException("A lista de históricos não pode ser null.");
+        }
+        CohortResult result = new CohortResult(records.size());
+        if (records.isEmpty()) {
+            return result;
+        }
+        
+        int leafSize = threshold > 0
+            ? threshold
+            : Math.max(1, records.size() / (pool.getParallelism() * SPLITS_PER_THREAD));
+        pool.invoke(new Slice(records, result, 0, records.size(), leafSize));
+        return result;
+    }
+    
+    /**
+     * Coleta o stream e calcula em paralelo. Os resultados seguem a ordem de encontro do stream.
+     */
+    public CohortResult compute(Stream<AcademicRecord> records) {
+        if (records == null) {
+            throw new IllegalArgumentException("O stream de históricos não pode ser null.");
+        }
+        return compute(records.toList());
+    }
+    
+    /**
+     * Cálculo na thread atual, usado como referência.
+     */
+    public static CohortResult computeSequential(List<AcademicRecord> records) {
+        CohortResult result = new CohortResult(records.size());
+        computeRange(records, result, 0, records.size());
+        return result;
+    }
+    
+    private static void computeRange(List<AcademicRecord> records, CohortResult result, int from, int to) {
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        for (int i = from; i < to; i++) {
+            engine.compute(records.get(i));
+            result.set(i, engine.getIra(), engine.getMp(), engine.getTotalCredits());
+        }
+    }
+    
+    private static class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final transient List<AcademicRecord> records;
+        private final transient CohortResult result;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        
+        Slice(List<AcademicRecord> records, CohortResult result, int from, int to, int leafSize) {
+            this.records = records;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                computeRange(records, result, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new Slice(records, result, from, middle, leafSize),
+                new Slice(records, result, middle, to, leafSize)
+            );
+        }
+    }
+}
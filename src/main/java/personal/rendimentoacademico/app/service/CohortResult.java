@@ -0,0 +1,60 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.Arrays;
+
+/**
+ * Índices de uma turma, na mesma ordem dos históricos calculados. IRA e MP
+ * estão em ponto fixo (ver {@link AcademicIndexEngine#SCALE}).
+ *
+ * @author henri
+ */
+public final class CohortResult {
+    private final int[] ira;
+    private final int[] mp;
+    private final long[] credits;
+    
+    CohortResult(int size) {
+        this.ira = new int[size];
+        this.mp = new int[size];
+        this.credits = new long[size];
+    }
+    
+    void set(int position, int ira, int mp, long credits) {
+        this.ira[position] = ira;
+        this.mp[position] = mp;
+        this.credits[position] = credits;
+    }
+    
+    public int size() {
+        return ira.length;
+    }
+    
+    public int getIra(int position) {
+        return ira[position];
+    }
+    
+    public int getMp(int position) {
+        return mp[position];
+    }
+    
+    public long getTotalCredits(int position) {
+        return credits[position];
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CohortResult other
+            && Arrays.equals(ira, other.ira)
+            && Arrays.equals(mp, other.mp)
+            && Arrays.equals(credits, other.credits);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ira) * 31 + Arrays.hashCode(mp);
+    }
+}
@@ -0,0 +1,12 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Record.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+/**
+ * IRA e MP acumulados até o fim de um semestre, em {@link AcademicIndexEngine#SCALE}.
+ *
+ * @author henri
+ */
+public record CumulativeIndex(int semesterNumber, int ira, int mp) {}
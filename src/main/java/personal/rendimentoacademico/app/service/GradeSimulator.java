@@ -0,0 +1,206 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import personal.rendimentoacademico.app.dao.IndexSumsDAO;
+import personal.rendimentoacademico.app.dao.SemesterDAO;
+import personal.rendimentoacademico.app.dao.SubjectDAO;
+import personal.rendimentoacademico.app.model.Grade;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Simula o IRA e a MP para as combinações de menções das matérias pendentes.
+ * <p>
+ * As somas do histórico gravado são lidas uma vez. Os denominadores não
+ * dependem da menção, então são fixos para todas as combinações; cada
+ * menção só muda os numeradores por um valor pré-calculado. As combinações
+ * são percorridas como um odômetro, trocando uma menção por vez, e cada
+ * passo custa O(1) amortizado.
+ *
+ * @author henri
+ */
+public final class GradeSimulator {
+    /** Limite de combinações de uma simulação (6^9 ≈ 10 milhões). */
+    public static final long MAX_SCENARIOS = 10_077_696;
+    
+    /**
+     * Recebe cada combinação simulada.
+     */
+    @FunctionalInterface
+    public interface ScenarioVisitor {
+        /**
+         * @param grades Menção de cada matéria pendente, na ordem recebida.
+         * O array é reaproveitado entre as chamadas; copie se for guardar.
+         * @param ira IRA em {@link AcademicIndexEngine#SCALE}
+         * @param mp MP em {@link AcademicIndexEngine#SCALE}, ou {@link AcademicIndexEngine#UNDEFINED}
+         */
+        void visit(Grade[] grades, int ira, int mp);
+    }
+    
+    private final List<PendingSubject> pending;
+    final long iraNumerator;
+    final long iraDenominator;
+    final long mpNumerator;
+    final long mpDenominator;
+    // [matéria][opção]: quanto cada menção soma aos numeradores
+    final long[][] iraDeltas;
+    final long[][] mpDeltas;
+    final Grade[][] options;
+    
+    public GradeSimulator(IndexAccumulator base, List<PendingSubject> pending) {
+        if (base == null || pending == null) {
+            throw new IllegalArgumentException("As somas e as matérias pendentes não podem ser null.");
+        }
+        this.pending = List.copyOf(pending);
+        
+        long iraDen = base.getIraDenominator();
+        long mpDen = base.getMpDenominator();
+        int size = this.pending.size();
+        iraDeltas = new long[size][];
+        mpDeltas = new long[size][];
+        options = new Grade[size][];
+        for (int i = 0; i < size; i++) {
+            PendingSubject subject = this.pending.get(i);
+            int factor = IndexAccumulator.semesterFactor(subject.semesterNumber());
+            iraDen += (long) subject.credits() * factor;
+            if (!subject.mandatory()) {
+                mpDen += subject.credits();
+            }
+            
+            options[i] = subject.grades().toArray(Grade[]::new);
+            iraDeltas[i] = new long[options[i].length];
+            mpDeltas[i] = new long[options[i].length];
+            for (int j = 0; j < options[i].length; j++) {
+                long weighted = (long) options[i][j].getWeight() * subject.credits();
+                iraDeltas[i][j] = weighted * factor;
+                mpDeltas[i][j] = subject.mandatory() ? 0 : weighted;
+            }
+        }
+        iraNumerator = base.getIraNumerator();
+        iraDenominator = iraDen;
+        mpNumerator = base.getMpNumerator();
+        mpDenominator = mpDen;
+    }
+    
+    /**
+     * Simula sobre as somas do histórico gravado no banco. Essas somas já
+     * incluem todas as matérias gravadas, então {@code pending} deve ter só
+     * matérias ainda não gravadas (como as de {@link PendingSubject#of(Semester)}).
+     */
+    public static GradeSimulator fromDatabase(List<PendingSubject> pending) throws SQLException {
+        return new GradeSimulator(IndexSumsDAO.load(), pending);
+    }
+    
+    /**
+     * Simula as matérias informadas do semestre com todas as menções, estejam
+     * gravadas ou não. A contribuição gravada de cada uma sai das somas do
+     * banco antes da enumeração, para que não seja contada duas vezes.
+     */
+    public static GradeSimulator fromDatabase(Semester semester, List<Subject> subjects) throws SQLException {
+        return new GradeSimulator(sumsExcluding(subjects), PendingSubject.of(semester, subjects));
+    }
+    
+    /**
+     * @return Somas gravadas no banco sem a contribuição, como está gravada,
+     * das matérias informadas; as ainda não gravadas são ignoradas
+     */
+    static IndexAccumulator sumsExcluding(List<Subject> subjects) throws SQLException {
+        IndexAccumulator sums = IndexSumsDAO.load();
+        for (Subject subject : subjects) {
+            Subject stored = subject.getId() != null ? SubjectDAO.getById(subject.getId()) : null;
+            if (stored == null || stored.getSemesterId() == null) {
+                continue;
+            }
+            Semester semester = SemesterDAO.getById(stored.getSemesterId(), SemesterDAO.FetchMode.LAZY);
+            if (semester != null) {
+                sums.remove(stored, semester.getNumber());
+            }
+        }
+        return sums;
+    }
+    
+    /**
+     * @return Quantidade de combinações de menções, ou Long.MAX_VALUE se
+     * passar de {@link #MAX_SCENARIOS}
+     */
+    public long getScenarioCount() {
+        long count = 1;
+        for (Grade[] grades : options) {
+            count *= grades.length;
+            if (count > MAX_SCENARIOS) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Percorre todas as combinações, da primeira menção de cada matéria à última.
+     * @throws IllegalArgumentException Se houver mais de {@link #MAX_SCENARIOS} combinações
+     */
+    public void forEach(ScenarioVisitor visitor) {
+        if (getScenarioCount() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("Combinações demais; limite as menções das matérias pendentes.");
+        }
+        
+        int size = options.length;
+        int[] digits = new int[size];
+        Grade[] grades = new Grade[size];
+        long ira = iraNumerator;
+        long mp = mpNumerator;
+        for (int i = 0; i < size; i++) {
+            grades[i] = options[i][0];
+            ira += iraDeltas[i][0];
+            mp += mpDeltas[i][0];
+        }
+        
+        while (true) {
+            visitor.visit(grades, AcademicIndexEngine.ratio(ira, iraDenominator), AcademicIndexEngine.ratio(mp, mpDenominator));
+            
+            // Avança o odômetro: a primeira matéria gira mais rápido
+            int i = 0;
+            while (i < size && digits[i] == options[i].length - 1) {
+                ira += iraDeltas[i][0] - iraDeltas[i][digits[i]];
+                mp += mpDeltas[i][0] - mpDeltas[i][digits[i]];
+                digits[i] = 0;
+                grades[i] = options[i][0];
+                i++;
+            }
+            if (i == size) {
+                return;
+            }
+            int next = digits[i] + 1;
+            ira += iraDeltas[i][next] - iraDeltas[i][digits[i]];
+            mp += mpDeltas[i][next] - mpDeltas[i][digits[i]];
+            digits[i] = next;
+            grades[i] = options[i][next];
+        }
+    }
+    
+    /**
+     * @return Quantas combinações levam a cada IRA e a cada MP
+     */
+    public SimulationResult simulate() {
+        SortedMap<Integer, Long> iraDistribution = new TreeMap<>();
+        SortedMap<Integer, Long> mpDistribution = new TreeMap<>();
+        long[] scenarios = {0};
+        forEach((grades, ira, mp) -> {
+            iraDistribution.merge(ira, 1L, Long::sum);
+            mpDistribution.merge(mp, 1L, Long::sum);
+            scenarios[0]++;
+        });
+        return new SimulationResult(scenarios[0], iraDistribution, mpDistribution);
+    }
+    
+    public List<PendingSubject> getPending() {
+        return pending;
+    }
+}
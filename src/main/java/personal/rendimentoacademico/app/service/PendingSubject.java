@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Record.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import personal.rendimentoacademico.app.model.Grade;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Matéria ainda sem menção, com as menções a considerar na simulação.
+ *
+ * @author henri
+ */
+public record PendingSubject(int credits, int semesterNumber, boolean mandatory, List<Grade> grades) {
+    
+    public PendingSubject {
+        if (credits < 0 || semesterNumber < 1) {
+            throw new IllegalArgumentException("Créditos e semestre da matéria pendente são inválidos.");
+        }
+        if (grades == null || grades.isEmpty()) {
+            throw new IllegalArgumentException("A matéria pendente precisa de ao menos uma menção possível.");
+        }
+        grades = List.copyOf(EnumSet.copyOf(grades));
+    }
+    
+    /**
+     * Matéria pendente com todas as menções possíveis.
+     */
+    public PendingSubject(int credits, int semesterNumber, boolean mandatory) {
+        this(credits, semesterNumber, mandatory, List.of(Grade.values()));
+    }
+    
+    public static PendingSubject of(Subject subject, int semesterNumber) {
+        return new PendingSubject(subject.getCredits(), semesterNumber, subject.isMandatory());
+    }
+    
+    /**
+     * Toda matéria gravada tem menção, então as matérias sem menção são só
+     * as ainda não gravadas: as somas base não as incluem. Para simular de
+     * novo matérias gravadas, use {@link GradeSimulator#fromDatabase(Semester, List)}.
+     * @return As matérias do semestre ainda sem menção válida, com todas as menções possíveis
+     */
+    public static List<PendingSubject> of(Semester semester) {
+        List<PendingSubject> pending = new ArrayList<>();
+        for (Subject subject : semester.getSubjects()) {
+            if (subject.getGradeValue() == null) {
+                pending.add(of(subject, semester.getNumber()));
+            }
+        }
+        return pending;
+    }
+    
+    /**
+     * @return As matérias informadas do semestre, tenham menção ou não, com
+     * todas as menções possíveis
+     */
+    public static List<PendingSubject> of(Semester semester, List<Subject> subjects) {
+        List<PendingSubject> pending = new ArrayList<>(subjects.size());
+        for (Subject subject : subjects) {
+            pending.add(of(subject, semester.getNumber()));
+        }
+        return pending;
+    }
+    
+    /**
+     * @return A mesma matéria, limitada às menções informadas
+     */
+    public PendingSubject withGrades(Grade... grades) {
+        return new PendingSubject(credits, semesterNumber, mandatory, List.of(grades));
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Record.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.Collections;
+import java.util.SortedMap;
+
+/**
+ * Distribuição dos índices simulados pelo {@link GradeSimulator}. As chaves
+ * são índices em {@link AcademicIndexEngine#SCALE} e os valores, quantas
+ * combinações levam a eles.
+ *
+ * @author henri
+ */
+public record SimulationResult(long scenarios, SortedMap<Integer, Long> iraDistribution, SortedMap<Integer, Long> mpDistribution) {
+    
+    public SimulationResult {
+        iraDistribution = Collections.unmodifiableSortedMap(iraDistribution);
+        mpDistribution = Collections.unmodifiableSortedMap(mpDistribution);
+    }
+    
+    public int getMinIra() {
+        return iraDistribution.firstKey();
+    }
+    
+    public int getMaxIra() {
+        return iraDistribution.lastKey();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import personal.rendimentoacademico.app.dao.IndexSumsDAO;
+import personal.rendimentoacademico.app.model.Grade;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Encontra as menções mais baratas nas matérias pendentes que levam o IRA a
+ * pelo menos um valor alvo. O custo de uma combinação é a soma dos pesos
+ * das menções: cada degrau acima de SR custa 1.
+ * <p>
+ * Busca em profundidade (branch-and-bound) sobre as matérias, das que mais
+ * pesam no IRA (créditos × peso do semestre) para as que menos pesam,
+ * tentando primeiro as menções mais baratas. Um ramo é cortado quando:
+ * <ul>
+ * <li>nem com as melhores menções restantes o alvo é alcançado;</li>
+ * <li>as piores menções restantes já alcançam o alvo, e então completar com
+ * elas é a opção mais barata do ramo;</li>
+ * <li>o custo mínimo estimado para o restante (relaxação fracionária, em que
+ * cada matéria rende créditos × peso do semestre por degrau) não melhora a
+ * melhor solução encontrada.</li>
+ * </ul>
+ *
+ * @author henri
+ */
+public final class TargetIraSolver {
+    
+    /**
+     * Menções escolhidas, na ordem das matérias pendentes, e os índices resultantes.
+     * @param cost Soma dos pesos das menções escolhidas
+     */
+    public record Solution(List<Grade> grades, int ira, int mp, int cost) {}
+    
+    private final GradeSimulator model;
+    // Matérias na ordem da busca e, para cada uma, as opções da mais barata à mais cara
+    private final int[] order;
+    private final int[][] optionOrder;
+    private final long[] rates;
+    // Somas das menções mais baratas e mais caras a partir de cada posição da busca
+    private final long[] suffixMin;
+    private final long[] suffixMax;
+    private final int[] suffixMinCost;
+    
+    private long need;
+    private int bestCost;
+    private final int[] choice;
+    private int[] bestChoice;
+    private long explored;
+    
+    /**
+     * @param base Somas do histórico sem as matérias pendentes; uma matéria
+     * presente nas duas seria contada duas vezes (ver
+     * {@link GradeSimulator#fromDatabase(Semester, List)})
+     * @param pending Matérias cujas menções serão escolhidas
+     */
+    public TargetIraSolver(IndexAccumulator base, List<PendingSubject> pending) {
+        this.model = new GradeSimulator(base, pending);
+        int size = model.options.length;
+        
+        rates = new long[size];
+        for (int i = 0; i < size; i++) {
+            PendingSubject subject = model.getPending().get(i);
+            rates[i] = (long) subject.credits() * IndexAccumulator.semesterFactor(subject.semesterNumber());
+        }
+        order = new int[size];
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, Comparator.comparingLong((Integer i) -> rates[i]).reversed());
+        
+        optionOrder = new int[size][];
+        suffixMin = new long[size + 1];
+        suffixMax = new long[size + 1];
+        suffixMinCost = new int[size + 1];
+        for (int position = size - 1; position >= 0; position--) {
+            int subject = boxed[position];
+            order[position] = subject;
+            Grade[] options = model.options[subject];
+            Integer[] byWeight = new Integer[options.length];
+            for (int j = 0; j < options.length; j++) {
+                byWeight[j] = j;
+            }
+            Arrays.sort(byWeight, Comparator.comparingInt(j -> options[j].getWeight()));
+            optionOrder[subject] = Arrays.stream(byWeight).mapToInt(Integer::intValue).toArray();
+            
+            int cheapest = optionOrder[subject][0];
+            int dearest = optionOrder[subject][options.length - 1];
+            suffixMin[position] = suffixMin[position + 1] + model.iraDeltas[subject][cheapest];
+            suffixMax[position] = suffixMax[position + 1] + model.iraDeltas[subject][dearest];
+            suffixMinCost[position] = suffixMinCost[position + 1] + options[cheapest].getWeight();
+        }
+        choice = new int[size];
+    }
+    
+    /**
+     * Resolve sobre as somas do histórico gravado no banco, que já incluem
+     * todas as matérias gravadas: {@code pending} deve ter só matérias ainda
+     * não gravadas.
+     */
+    public static TargetIraSolver fromDatabase(List<PendingSubject> pending) throws SQLException {
+        return new TargetIraSolver(IndexSumsDAO.load(), pending);
+    }
+    
+    /**
+     * Resolve para as matérias informadas do semestre, estejam gravadas ou
+     * não; a contribuição gravada de cada uma sai das somas do banco.
+     */
+    public static TargetIraSolver fromDatabase(Semester semester, List<Subject> subjects) throws SQLException {
+        return new TargetIraSolver(GradeSimulator.sumsExcluding(subjects), PendingSubject.of(semester, subjects));
+    }
+    
+    /**
+     * @param targetIra IRA mínimo em {@link AcademicIndexEngine#SCALE}, comparado
+     * com o IRA arredondado que o engine informa
+     * @return A combinação mais barata, ou vazio se o alvo for inalcançável
+     */
+    public Optional<Solution> solve(int targetIra) {
+        if (targetIra < 0) {
+            throw new IllegalArgumentException("O IRA alvo não pode ser negativo.");
+        }
+        explored = 0;
+        long denominator = model.iraDenominator;
+        if (denominator == 0) {
+            return Optional.empty();
+        }
+        
+        // ratio(n, d) >= alvo  <=>  n * SCALE + d / 2 >= alvo * d
+        long required = Math.ceilDiv((long) targetIra * denominator - denominator / 2, AcademicIndexEngine.SCALE);
+        need = required - model.iraNumerator;
+        bestCost = Integer.MAX_VALUE;
+        bestChoice = null;
+        search(0, 0, 0);
+        
+        if (bestChoice == null) {
+            return Optional.empty();
+        }
+        List<Grade> grades = new ArrayList<>(bestChoice.length);
+        long ira = model.iraNumerator;
+        long mp = model.mpNumerator;
+        for (int i = 0; i < bestChoice.length; i++) {
+            grades.add(model.options[i][bestChoice[i]]);
+            ira += model.iraDeltas[i][bestChoice[i]];
+            mp += model.mpDeltas[i][bestChoice[i]];
+        }
+        return Optional.of(new Solution(List.copyOf(grades),
+            AcademicIndexEngine.ratio(ira, denominator), AcademicIndexEngine.ratio(mp, model.mpDenominator), bestCost));
+    }
+    
+    private void search(int position, long sum, int cost) {
+        explored++;
+        if (sum + suffixMax[position] < need) {
+            return;
+        }
+        if (sum + suffixMin[position] >= need) {
+            int total = cost + suffixMinCost[position];
+            if (total < bestCost) {
+                for (int p = position; p < order.length; p++) {
+                    choice[order[p]] = optionOrder[order[p]][0];
+                }
+                bestCost = total;
+                bestChoice = choice.clone();
+            }
+            return;
+        }
+        if (lowerBound(position, sum, cost) >= bestCost) {
+            return;
+        }
+        
+        int subject = order[position];
+        for (int option : optionOrder[subject]) {
+            choice[subject] = option;
+            search(position + 1, sum + model.iraDeltas[subject][option], cost + model.options[subject][option].getWeight());
+        }
+    }
+    
+    /**
+     * Custo mínimo do ramo se as menções pudessem ser fracionárias: parte
+     * das menções mais baratas e sobe primeiro nas matérias que mais rendem.
+     */
+    private int lowerBound(int position, long sum, int cost) {
+        long gap = need - sum - suffixMin[position];
+        double extra = 0;
+        for (int p = position; p < order.length && gap > 0; p++) {
+            int subject = order[p];
+            if (rates[subject] == 0) {
+                break;
+            }
+            long capacity = suffixMax[p] - suffixMax[p + 1] - (suffixMin[p] - suffixMin[p + 1]);
+            long taken = Math.min(gap, capacity);
+            extra += (double) taken / rates[subject];
+            gap -= taken;
+        }
+        // Tolerância para o arredondamento do double antes do teto
+        return cost + suffixMinCost[position] + (int) Math.ceil(extra - 1e-9);
+    }
+    
+    /**
+     * @return Nós visitados pela última chamada de {@link #solve(int)}
+     */
+    public long getExploredNodes() {
+        return explored;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Somas do IRA com a Vector API. Só é carregada por {@link WeightedSumKernel}
+ * quando o módulo jdk.incubator.vector está presente.
+ * <p>
+ * Os ints são lidos com metade da largura do vetor de longs e convertidos,
+ * para que produtos e somas fiquem em 64 bits e não estourem.
+ *
+ * @author henri
+ */
+final class VectorWeightedSums {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+    
+    private VectorWeightedSums() {}
+    
+    static String describe() {
+        return LONGS.toString();
+    }
+    
+    static void sum(int[] credits, int[] weights, int[] semesters, int count, long[] out) {
+        LongVector numerator = LongVector.zero(LONGS);
+        LongVector denominator = LongVector.zero(LONGS);
+        LongVector maxFactor = LongVector.broadcast(LONGS, AcademicIndexEngine.MAX_SEMESTER_FACTOR);
+        
+        int i = 0;
+        int bound = INTS.loopBound(count);
+        for (; i < bound; i += INTS.length()) {
+            LongVector c = widen(IntVector.fromArray(INTS, credits, i));
+            LongVector w = widen(IntVector.fromArray(INTS, weights, i));
+            LongVector factor = widen(IntVector.fromArray(INTS, semesters, i)).min(maxFactor);
+            LongVector weightedCredits = c.mul(factor);
+            denominator = denominator.add(weightedCredits);
+            numerator = numerator.add(weightedCredits.mul(w));
+        }
+        
+        long numeratorSum = numerator.reduceLanes(VectorOperators.ADD);
+        long denominatorSum = denominator.reduceLanes(VectorOperators.ADD);
+        for (; i < count; i++) {
+            long weightedCredits = (long) credits[i] * Math.min(semesters[i], AcademicIndexEngine.MAX_SEMESTER_FACTOR);
+            denominatorSum += weightedCredits;
+            numeratorSum += weightedCredits * weights[i];
+        }
+        out[0] = numeratorSum;
+        out[1] = denominatorSum;
+    }
+    
+    private static LongVector widen(IntVector values) {
+        return (LongVector) values.convertShape(VectorOperators.I2L, LONGS, 0);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.service;
+
+/**
+ * Somas ponderadas do IRA (Σ w·c·min(s, 6) e Σ c·min(s, 6)) sobre colunas
+ * de créditos, pesos e semestres, para recálculos de turmas inteiras.
+ * <p>
+ * Usa a Vector API (SIMD) quando a JVM foi iniciada com
+ * {@code --add-modules jdk.incubator.vector}; caso contrário, ou com
+ * {@code -Drendimento.vector=false}, usa o laço escalar. Os dois caminhos
+ * fazem somas inteiras exatas e dão o mesmo resultado.
+ *
+ * @author henri
+ */
+public final class WeightedSumKernel {
+    private static final boolean VECTORIZED = detectVectorSupport();
+    
+    private WeightedSumKernel() {}
+    
+    private static boolean detectVectorSupport() {
+        if (!Boolean.parseBoolean(System.getProperty("rendimento.vector", "true"))) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            VectorWeightedSums.describe();
+            return true;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+    
+    /**
+     * @return true se as somas usam a Vector API
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+    
+    /**
+     * Soma as primeiras {@code count} posições das colunas.
+     * @param out Recebe o numerador em out[0] e o denominador em out[1]
+     */
+    public static void iraSums(int[] credits, int[] weights, int[] semesters, int count, long[] out) {
+        checkArguments(credits, weights, semesters, count, out);
+        if (VECTORIZED) {
+            VectorWeightedSums.sum(credits, weights, semesters, count, out);
+        } else {
+            scalarIraSums(credits, weights, semesters, count, out);
+        }
+    }
+    
+    /**
+     * Caminho escalar, usado sem a Vector API e como referência.
+     */
+    public static void scalarIraSums(int[] credits, int[] weights, int[] semesters, int count, long[] out) {
+        checkArguments(credits, weights, semesters, count, out);
+        long numerator = 0, denominator = 0;
+        for (int i = 0; i < count; i++) {
+            long weightedCredits = (long) credits[i] * Math.min(semesters[i], AcademicIndexEngine.MAX_SEMESTER_FACTOR);
+            denominator += weightedCredits;
+            numerator += weightedCredits * weights[i];
+        }
+        out[0] = numerator;
+        out[1] = denominator;
+    }
+    
+    /**
+     * @return IRA do histórico em {@link AcademicIndexEngine#SCALE}, ou
+     * {@link AcademicIndexEngine#UNDEFINED}
+     */
+    public static int ira(AcademicRecord record) {
+        long[] sums = new long[2];
+        iraSums(record.credits(), record.weights(), record.semesters(), record.size(), sums);
+        return AcademicIndexEngine.ratio(sums[0], sums[1]);
+    }
+    
+    /**
+     * Confere o kernel contra o {@link AcademicIndexEngine} escalar.
+     * @throws IllegalStateException Se os IRAs forem diferentes
+     */
+    public static void crossCheck(AcademicRecord record) {
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        engine.compute(record);
+        int kernel = ira(record);
+        if (kernel != engine.getIra()) {
+            throw new IllegalStateException(String.format(
+                "IRA do kernel (%d) diferente do cálculo escalar (%d).", kernel, engine.getIra()));
+        }
+    }
+    
+    private static void checkArguments(int[] credits, int[] weights, int[] semesters, int count, long[] out) {
+        if (count < 0 || credits.length < count || weights.length < count || semesters.length < count) {
+            throw new IllegalArgumentException("Quantidade de matérias maior que as colunas.");
+        }
+        if (out.length < 2) {
+            throw new IllegalArgumentException("O array de saída deve ter duas posições.");
+        }
+    }
+}
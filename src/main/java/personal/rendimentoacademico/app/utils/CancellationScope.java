@@ -0,0 +1,94 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escopo de cancelamento de uma operação de banco.
+ * <p>
+ * Enquanto {@link #run(SqlSupplier)} executa, toda conexão emprestada do
+ * {@link ConnectionPool} na mesma thread registra aqui os statements que cria.
+ * {@link #cancel()} chama Statement.cancel em todos os statements das
+ * conexões ainda emprestadas, interrompendo a consulta em andamento, e faz
+ * falhar a criação de novos statements. Uma conexão sai do escopo antes de
+ * voltar ao pool, então o cancelamento nunca atinge outra operação.
+ *
+ * @author henri
+ */
+public final class CancellationScope {
+    private static final ThreadLocal<CancellationScope> CURRENT = new ThreadLocal<>();
+
+    private final Map<Object, List<Statement>> statements = new IdentityHashMap<>();
+    private boolean cancelled;
+
+    /**
+     * @return Escopo associado à thread atual, ou null fora de {@link #run(SqlSupplier)}
+     */
+    public static CancellationScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Executa a operação com este escopo associado à thread atual.
+     */
+    public <T> T run(SqlSupplier<T> operation) throws SQLException {
+        CancellationScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return operation.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Registra um statement criado pela conexão {@code owner}.
+     * @throws SQLException se o escopo já foi cancelado
+     */
+    synchronized void register(Object owner, Statement statement) throws SQLException {
+        if (cancelled) {
+            throw new SQLException("A operação foi cancelada.");
+        }
+        statements.computeIfAbsent(owner, key -> new ArrayList<>()).add(statement);
+    }
+
+    /**
+     * Esquece os statements da conexão, que está sendo devolvida ao pool.
+     */
+    synchronized void release(Object owner) {
+        statements.remove(owner);
+    }
+
+    /**
+     * Cancela os statements das conexões ainda emprestadas. Falhas ao
+     * cancelar (statement já fechado, por exemplo) são ignoradas.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        for (List<Statement> owned : statements.values()) {
+            for (Statement statement : owned) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    // O statement já terminou: não há o que interromper
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
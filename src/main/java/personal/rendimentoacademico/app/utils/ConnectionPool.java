@@ -0,0 +1,360 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool limitado de conexões JDBC.
+ * As conexões entregues são proxies: chamar close() devolve a conexão física
+ * ao pool em vez de fechá-la. Conexões ociosas por mais tempo que o limite
+ * configurado são descartadas, e toda conexão reaproveitada é validada antes
+ * de ser entregue. Cada conexão física guarda um {@link StatementCache}, então
+ * prepareStatement com um SQL já usado reaproveita o statement compilado.
+ * Conexões emprestadas dentro de um {@link CancellationScope} registram nele
+ * os statements que criam.
+ *
+ * @author henri
+ */
+public class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_MAX_SIZE = 4;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30_000;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private record IdleConnection(Connection physical, StatementCache statements, long idleSince) {}
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+
+    // Mais recentes no início: reaproveitar a conexão mais "quente" primeiro
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong borrowWaitCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory) {
+        this(factory, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_BORROW_TIMEOUT_MILLIS);
+    }
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis) {
+        this(factory, maxSize, idleTimeoutMillis, borrowTimeoutMillis, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param statementCacheSize Quantidade máxima de statements guardados por
+     * conexão física; 0 desativa o cache
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis,
+            int statementCacheSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("A fábrica de conexões não pode ser null.");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("O tamanho máximo do pool deve ser positivo.");
+        }
+        if (idleTimeoutMillis < 0 || borrowTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Os tempos limite não podem ser negativos.");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("O tamanho do cache de statements não pode ser negativo.");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Obtém uma conexão do pool, aguardando até o tempo limite caso todas
+     * estejam em uso.
+     * @return Conexão que volta ao pool quando fechada
+     * @throws SQLException se o pool estiver fechado, o tempo de espera
+     * esgotar ou não for possível abrir uma nova conexão
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("O pool de conexões está fechado.");
+        }
+        acquirePermit();
+
+        try {
+            IdleConnection reused = takeIdle();
+            Connection physical;
+            StatementCache statements;
+            if (reused != null) {
+                physical = reused.physical();
+                statements = reused.statements();
+            } else {
+                physical = factory.create();
+                statements = new StatementCache(physical, statementCacheSize, statementCacheHits, statementCacheMisses);
+            }
+            inUse.incrementAndGet();
+            return wrap(physical, statements);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+
+        borrowWaitCount.incrementAndGet();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido enquanto aguardava uma conexão do pool.", e);
+        } finally {
+            borrowWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        if (!acquired) {
+            throw new SQLTimeoutException(String.format(
+                "Tempo esgotado após %d ms aguardando uma conexão do pool.", borrowTimeoutMillis));
+        }
+    }
+
+    private IdleConnection takeIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isExpired(candidate, System.nanoTime()) || !isUsable(candidate.physical())) {
+                closeQuietly(candidate);
+                continue;
+            }
+            return candidate;
+        }
+    }
+
+    private boolean isUsable(Connection physical) {
+        try {
+            return !physical.isClosed() && physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(IdleConnection connection, long now) {
+        return now - connection.idleSince() >= idleTimeoutNanos;
+    }
+
+    private void release(Connection physical, StatementCache statements) {
+        inUse.decrementAndGet();
+        try {
+            if (closed || physical.isClosed()) {
+                closeQuietly(physical, statements);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            synchronized (idle) {
+                idle.addFirst(new IdleConnection(physical, statements, System.nanoTime()));
+            }
+            evictIdle();
+        } catch (SQLException e) {
+            closeQuietly(physical, statements);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Fecha as conexões que estão ociosas há mais tempo que o limite.
+     * É chamado a cada devolução, então não há thread de manutenção.
+     */
+    public void evictIdle() {
+        List<IdleConnection> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (idle) {
+            while (!idle.isEmpty() && isExpired(idle.peekLast(), now)) {
+                expired.add(idle.pollLast());
+            }
+        }
+        expired.forEach(ConnectionPool::closeQuietly);
+    }
+
+    private Connection wrap(Connection physical, StatementCache statements) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new PooledConnectionHandler(physical, statements, CancellationScope.current())
+        );
+    }
+
+    private static void closeQuietly(IdleConnection connection) {
+        closeQuietly(connection.physical(), connection.statements());
+    }
+
+    private static void closeQuietly(Connection physical, StatementCache statements) {
+        statements.close();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.out.println("Erro ao fechar conexão do pool! " + e.getMessage());
+        }
+    }
+
+    // Estatísticas
+    public int getMaxSize() {
+        return maxSize;
+    }
+    public int getInUseCount() {
+        return inUse.get();
+    }
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+    public long getBorrowWaitCount() {
+        return borrowWaitCount.get();
+    }
+    public long getBorrowWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(borrowWaitNanos.get());
+    }
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+    public long getStatementCacheHitCount() {
+        return statementCacheHits.get();
+    }
+    public long getStatementCacheMissCount() {
+        return statementCacheMisses.get();
+    }
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Fecha todas as conexões ociosas. Conexões ainda emprestadas são
+     * fechadas quando forem devolvidas.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<IdleConnection> remaining;
+        synchronized (idle) {
+            remaining = new ArrayList<>(idle);
+            idle.clear();
+        }
+        remaining.forEach(ConnectionPool::closeQuietly);
+    }
+
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final StatementCache statements;
+        private final CancellationScope scope;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        PooledConnectionHandler(Connection physical, StatementCache statements, CancellationScope scope) {
+            this.physical = physical;
+            this.statements = statements;
+            this.scope = scope;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        if (scope != null) {
+                            scope.release(this);
+                        }
+                        release(physical, statements);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || physical.isClosed();
+                }
+                case "isValid" -> {
+                    return !returned.get() && physical.isValid((Integer) args[0]);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + physical + "]";
+                }
+                default -> {
+                    if (returned.get()) {
+                        throw new SQLException("A conexão já foi devolvida ao pool.");
+                    }
+                }
+            }
+
+            Object value;
+            if (method.getName().equals("prepareStatement")) {
+                value = statements.prepare((Connection) proxy, method, args);
+            } else {
+                try {
+                    value = method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            if (scope != null && value instanceof Statement statement) {
+                track(statement);
+            }
+            return value;
+        }
+
+        private void track(Statement statement) throws SQLException {
+            try {
+                scope.register(this, statement);
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Properties;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+import org.sqlite.SQLiteConfig.TempStore;
+
+/**
+ * Configuração das conexões SQLite: URL do banco, pragmas de desempenho e
+ * tamanho do pool. Os pragmas são aplicados via SQLiteConfig em toda conexão
+ * aberta pelo DBUtil.
+ * <p>
+ * Há dois perfis prontos: "durable" (WAL com synchronous=FULL, nenhum commit
+ * confirmado se perde) e "fast" (WAL com synchronous=NORMAL, cache e mmap
+ * maiores; uma queda de energia pode perder os últimos commits, mas nunca
+ * corrompe o banco).
+ *
+ * @author henri
+ */
+public record ConnectionProfile(
+    String url,
+    JournalMode journalMode,
+    SynchronousMode synchronous,
+    int cacheSize,
+    long mmapSize,
+    TempStore tempStore,
+    int busyTimeout,
+    int poolSize
+) {
+    public static final String DEFAULT_URL = "jdbc:sqlite:database/rendimento_academico.db";
+    public static final String DEFAULT_CONFIG_FILE = "database/rendimento_academico.properties";
+    public static final String SYSTEM_PROPERTY_PREFIX = "rendimento.db.";
+
+    public ConnectionProfile {
+        if (url == null || !url.startsWith("jdbc:sqlite:")) {
+            throw new IllegalArgumentException("A URL deve usar o protocolo jdbc:sqlite:.");
+        }
+        if (journalMode == null || synchronous == null || tempStore == null) {
+            throw new IllegalArgumentException("Os modos do perfil não podem ser null.");
+        }
+        if (mmapSize < 0 || busyTimeout < 0) {
+            throw new IllegalArgumentException("mmap_size e busy_timeout não podem ser negativos.");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("O tamanho do pool deve ser positivo.");
+        }
+    }
+
+    /**
+     * Perfil seguro: WAL, synchronous=FULL e demais pragmas no padrão do SQLite.
+     */
+    public static ConnectionProfile durable(String url) {
+        return new ConnectionProfile(url, JournalMode.WAL, SynchronousMode.FULL,
+            -2_000, 0, TempStore.DEFAULT, 5_000, ConnectionPool.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Perfil rápido: WAL, synchronous=NORMAL, 64 MiB de cache, 256 MiB de mmap
+     * e tabelas temporárias em memória.
+     */
+    public static ConnectionProfile fast(String url) {
+        return new ConnectionProfile(url, JournalMode.WAL, SynchronousMode.NORMAL,
+            -64_000, 256L * 1024 * 1024, TempStore.MEMORY, 5_000, ConnectionPool.DEFAULT_MAX_SIZE);
+    }
+
+    public static ConnectionProfile preset(String name, String url) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "durable" -> durable(url);
+            case "fast" -> fast(url);
+            default -> throw new IllegalArgumentException(String.format("O perfil %s não existe.", name));
+        };
+    }
+
+    /**
+     * Carrega o perfil a partir do arquivo de propriedades (caminho em
+     * -Drendimento.db.config, padrão {@value #DEFAULT_CONFIG_FILE}) e das
+     * propriedades de sistema -Drendimento.db.*, que têm precedência.
+     * Sem nenhuma configuração, usa o perfil "durable" na URL padrão.
+     */
+    public static ConnectionProfile load() {
+        Properties properties = new Properties();
+        Path file = Path.of(System.getProperty(SYSTEM_PROPERTY_PREFIX + "config", DEFAULT_CONFIG_FILE));
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                properties.load(input);
+            } catch (IOException e) {
+                throw new IllegalStateException(String.format("Falha ao ler a configuração %s.", file), e);
+            }
+        }
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PROPERTY_PREFIX)) {
+                properties.setProperty(name.substring(SYSTEM_PROPERTY_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        return fromProperties(properties);
+    }
+
+    /**
+     * Monta o perfil a partir de propriedades sem prefixo: url, profile,
+     * journal_mode, synchronous, cache_size, mmap_size, temp_store,
+     * busy_timeout e pool_size. As ausentes vêm do perfil escolhido.
+     */
+    public static ConnectionProfile fromProperties(Properties properties) {
+        ConnectionProfile base = preset(
+            properties.getProperty("profile", "durable"),
+            properties.getProperty("url", DEFAULT_URL)
+        );
+
+        return new ConnectionProfile(
+            base.url(),
+            enumProperty(properties, "journal_mode", JournalMode.class, base.journalMode()),
+            enumProperty(properties, "synchronous", SynchronousMode.class, base.synchronous()),
+            intProperty(properties, "cache_size", base.cacheSize()),
+            Long.parseLong(properties.getProperty("mmap_size", String.valueOf(base.mmapSize())).trim()),
+            enumProperty(properties, "temp_store", TempStore.class, base.tempStore()),
+            intProperty(properties, "busy_timeout", base.busyTimeout()),
+            intProperty(properties, "pool_size", base.poolSize())
+        );
+    }
+
+    private static int intProperty(Properties properties, String key, int fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Integer.parseInt(value.trim());
+    }
+
+    private static <E extends Enum<E>> E enumProperty(Properties properties, String key, Class<E> type, E fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public ConnectionProfile withUrl(String newUrl) {
+        return new ConnectionProfile(newUrl, journalMode, synchronous, cacheSize, mmapSize, tempStore, busyTimeout, poolSize);
+    }
+
+    public SQLiteConfig toSQLiteConfig() {
+        SQLiteConfig config = basePragmas();
+        config.setJournalMode(journalMode);
+        return config;
+    }
+
+    /**
+     * Configuração para conexões de leitura. Não inclui journal_mode, que
+     * exige escrita e fica gravado no arquivo pela conexão de escrita.
+     */
+    public SQLiteConfig toReadOnlySQLiteConfig() {
+        SQLiteConfig config = basePragmas();
+        config.setReadOnly(true);
+        return config;
+    }
+
+    private SQLiteConfig basePragmas() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(synchronous);
+        config.setCacheSize(cacheSize);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        config.setTempStore(tempStore);
+        config.setBusyTimeout(busyTimeout);
+        return config;
+    }
+
+    /**
+     * Abre uma conexão com os pragmas do perfil e as funções ira() e mp()
+     * registradas (ver {@link IndexFunctions}).
+     */
+    public Connection openConnection() throws SQLException {
+        return withFunctions(toSQLiteConfig().createConnection(url));
+    }
+
+    public Connection openReadOnlyConnection() throws SQLException {
+        return withFunctions(toReadOnlySQLiteConfig().createConnection(url));
+    }
+
+    private static Connection withFunctions(Connection connection) throws SQLException {
+        try {
+            IndexFunctions.register(connection);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+}
@@ -5,19 +5,119 @@
 package personal.rendimentoacademico.app.utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
  * @author henri
  */
 public class DBUtil {
-    private static final String URL = "jdbc:sqlite:database/rendimento_academico.db";
+    // Carregados no primeiro uso, para que um erro na configuração chegue
+    // como SQLException em vez de impedir a inicialização da classe
+    private static ConnectionProfile profile;
+    private static ConnectionPool pool;
 
+    private static DatabaseExecutor executor;
+
+    /**
+     * Obtém uma conexão de leitura e escrita do pool de uso geral.
+     * Fechar a conexão a devolve ao pool. Os DAOs usam
+     * {@link #getReadConnection()} e {@link #write(SqlFunction)}.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return getPool().borrow();
+    }
+
+    /**
+     * Obtém uma conexão somente leitura do pool de leitores.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return getExecutor().getReadConnection();
+    }
+
+    /**
+     * Executa a escrita na conexão única de escrita e aguarda o commit.
+     * @see DatabaseExecutor#write(SqlFunction)
+     */
+    public static <T> T write(SqlFunction<T> work) throws SQLException {
+        return getExecutor().write(work);
+    }
+
+    public static <T> CompletableFuture<T> submitWrite(SqlFunction<T> work) {
+        try {
+            return getExecutor().submitWrite(work);
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public static synchronized DatabaseExecutor getExecutor() throws SQLException {
+        if (executor == null) {
+            executor = new DatabaseExecutor(getProfile());
+        }
+        return executor;
+    }
+
+    public static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
+            pool = newPool(getProfile(), getProfile().poolSize(),
+                ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS);
+        }
+        return pool;
+    }
+
+    /**
+     * Perfil em uso; no primeiro acesso é lido por {@link ConnectionProfile#load()}.
+     * @throws SQLException Se o arquivo de configuração ou as propriedades forem inválidos
+     */
+    public static synchronized ConnectionProfile getProfile() throws SQLException {
+        if (profile == null) {
+            try {
+                profile = ConnectionProfile.load();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new SQLException("Configuração do banco de dados inválida: " + e.getMessage(), e);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Passa a abrir as conexões com o perfil informado. O pool é recriado
+     * com o tamanho do perfil, já que as conexões antigas usam os pragmas
+     * anteriores.
+     */
+    public static synchronized void configure(ConnectionProfile newProfile) {
+        if (newProfile == null) {
+            throw new IllegalArgumentException("O perfil não pode ser null.");
+        }
+        profile = newProfile;
+        if (executor != null) {
+            executor.close();
+            executor = null;
+        }
+        replacePool(newPool(newProfile, newProfile.poolSize(),
+            ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Substitui o pool atual por um novo com a configuração informada.
+     * Conexões emprestadas do pool antigo são fechadas ao serem devolvidas.
+     */
+    public static synchronized void configurePool(int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis) throws SQLException {
+        replacePool(newPool(getProfile(), maxSize, idleTimeoutMillis, borrowTimeoutMillis));
+    }
+
+    private static void replacePool(ConnectionPool replacement) {
+        ConnectionPool previous = pool;
+        pool = replacement;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    private static ConnectionPool newPool(ConnectionProfile profile, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis) {
+        return new ConnectionPool(profile::openConnection, maxSize, idleTimeoutMillis, borrowTimeoutMillis);
     }
 
     // Métodos utilitários para fechar recursos (opcional)
@@ -31,35 +131,15 @@ public class DBUtil {
         }
     }
     
+    /**
+     * Cria ou atualiza o esquema aplicando as migrações pendentes de
+     * {@link SchemaMigrations}. Em um banco já atualizado só lê a versão.
+     */
     public static void initializeDatabase() {
-        String sqlSemester = """
-            CREATE TABLE IF NOT EXISTS semester (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                number INTEGER NOT NULL,
-                subject_count INTEGER NOT NULL,
-                total_credits INTEGER NOT NULL
-            );
-        """;
-        
-        String sqlSubject = """
-            CREATE TABLE IF NOT EXISTS subject (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                name TEXT NOT NULL,
-                code TEXT,
-                credits INTEGER NOT NULL,
-                grade TEXT NOT NULL,
-                mandatory BOOLEAN NOT NULL,
-                semester_id INTEGER,
-                FOREIGN KEY (semester_id) REFERENCES semester(id)
-            );
-        """;
-        try (Connection conn = getConnection();
-            Statement stmt = conn.createStatement()
-        ) {
-            stmt.execute(sqlSemester);
-            stmt.execute(sqlSubject);
+        try (Connection conn = getConnection()) {
+            new MigrationRunner(SchemaMigrations.ALL).migrate(conn);
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modelo de execução de um escritor e vários leitores para o SQLite.
+ * <p>
+ * Todas as escritas passam por uma única thread, dona da única conexão de
+ * escrita. As escritas que se acumulam na fila enquanto a anterior roda são
+ * agrupadas em uma só transação (group commit), cada uma dentro de um
+ * savepoint: se uma falhar, só ela é desfeita. As leituras usam um pool de
+ * conexões somente leitura e, em modo WAL, nunca esperam pelas escritas.
+ *
+ * @author henri
+ */
+public class DatabaseExecutor implements AutoCloseable {
+    public static final int DEFAULT_MAX_GROUP_SIZE = 64;
+
+    private record WriteTask<T>(SqlFunction<T> work, CompletableFuture<T> future) {}
+
+    private static final WriteTask<Void> SHUTDOWN = new WriteTask<>(connection -> null, new CompletableFuture<>());
+
+    private final ConnectionPool writerPool;
+    private final ConnectionPool readPool;
+    private final int maxGroupSize;
+    private final BlockingQueue<WriteTask<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private final CompletableFuture<Void> databasePrepared = new CompletableFuture<>();
+    private final AtomicLong committedGroups = new AtomicLong();
+    private final AtomicLong committedWrites = new AtomicLong();
+    private volatile boolean closed;
+
+    // Só é acessada pela thread escritora
+    private Connection writerConnection;
+
+    public DatabaseExecutor(ConnectionProfile profile) {
+        this(profile, DEFAULT_MAX_GROUP_SIZE);
+    }
+
+    public DatabaseExecutor(ConnectionProfile profile, int maxGroupSize) {
+        if (maxGroupSize < 1) {
+            throw new IllegalArgumentException("O tamanho máximo do grupo deve ser positivo.");
+        }
+        this.maxGroupSize = maxGroupSize;
+        this.writerPool = new ConnectionPool(profile::openConnection, 1,
+            ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS);
+        this.readPool = new ConnectionPool(profile::openReadOnlyConnection, profile.poolSize(),
+            ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS);
+        this.writerThread = new Thread(this::runWriter, "sqlite-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Obtém uma conexão somente leitura. Fechar a conexão a devolve ao pool.
+     */
+    public Connection getReadConnection() throws SQLException {
+        prepareDatabase();
+        return readPool.borrow();
+    }
+
+    /**
+     * Enfileira uma escrita e aguarda o commit da transação em que ela rodou.
+     * Chamadas feitas de dentro de outra escrita rodam direto na mesma
+     * transação, sem passar pela fila. Se a thread for interrompida enquanto
+     * aguarda, a escrita é descartada caso ainda não tenha começado.
+     */
+    public <T> T write(SqlFunction<T> work) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            return work.apply(writerConnection);
+        }
+
+        CompletableFuture<T> future = submitWrite(work);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido enquanto aguardava a escrita.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException("Falha na escrita.", cause);
+        }
+    }
+
+    /**
+     * Enfileira uma escrita sem bloquear. O future é concluído depois do
+     * commit; se for cancelado antes de a escrita começar, ela é descartada.
+     */
+    public <T> CompletableFuture<T> submitWrite(SqlFunction<T> work) {
+        if (work == null) {
+            throw new IllegalArgumentException("A escrita não pode ser null.");
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new SQLException("O executor do banco está fechado."));
+            return future;
+        }
+        WriteTask<T> task = new WriteTask<>(work, future);
+        queue.add(task);
+        if (!writerThread.isAlive() && queue.remove(task)) {
+            future.completeExceptionally(new SQLException("O executor do banco está fechado."));
+        }
+        return future;
+    }
+
+    private void prepareDatabase() throws SQLException {
+        // Conexões somente leitura não criam o arquivo nem ativam o WAL;
+        // a thread escritora abre sua conexão antes de qualquer leitura
+        try {
+            databasePrepared.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido enquanto aguardava o banco.", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Falha ao preparar o banco de dados.", e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        try {
+            writerPool.borrow().close();
+            databasePrepared.complete(null);
+        } catch (SQLException | RuntimeException e) {
+            databasePrepared.completeExceptionally(e);
+        }
+
+        List<WriteTask<?>> group = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(group, maxGroupSize - 1);
+
+            int shutdownIndex = group.indexOf(SHUTDOWN);
+            if (shutdownIndex >= 0) {
+                group.subList(shutdownIndex, group.size()).clear();
+                running = false;
+            }
+            runGroup(group);
+            group.clear();
+        }
+
+        // Escritas enfileiradas depois do fechamento não serão executadas
+        SQLException closedException = new SQLException("O executor do banco está fechado.");
+        for (WriteTask<?> task : queue) {
+            task.future().completeExceptionally(closedException);
+        }
+    }
+
+    private void runGroup(List<WriteTask<?>> group) {
+        group.removeIf(task -> task.future().isCancelled());
+        if (group.isEmpty()) {
+            return;
+        }
+
+        List<Runnable> completions = new ArrayList<>(group.size());
+        try (Connection connection = writerPool.borrow()) {
+            writerConnection = connection;
+            connection.setAutoCommit(false);
+            for (WriteTask<?> task : group) {
+                runInSavepoint(connection, task, completions);
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            // O pool desfaz a transação ao receber a conexão de volta
+            for (WriteTask<?> task : group) {
+                task.future().completeExceptionally(e);
+            }
+            return;
+        } finally {
+            writerConnection = null;
+        }
+
+        committedGroups.incrementAndGet();
+        committedWrites.addAndGet(completions.size());
+        completions.forEach(Runnable::run);
+    }
+
+    private static <T> void runInSavepoint(Connection connection, WriteTask<T> task, List<Runnable> completions) throws SQLException {
+        if (task.future().isCancelled()) {
+            return;
+        }
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            T result = task.work().apply(connection);
+            connection.releaseSavepoint(savepoint);
+            completions.add(() -> task.future().complete(result));
+        } catch (Throwable e) {
+            connection.rollback(savepoint);
+            connection.releaseSavepoint(savepoint);
+            task.future().completeExceptionally(e);
+        }
+    }
+
+    // Estatísticas
+    public long getCommittedGroupCount() {
+        return committedGroups.get();
+    }
+    public long getCommittedWriteCount() {
+        return committedWrites.get();
+    }
+    public int getPendingWriteCount() {
+        return queue.size();
+    }
+    public ConnectionPool getReadPool() {
+        return readPool;
+    }
+
+    /**
+     * Processa as escritas já enfileiradas, encerra a thread escritora e
+     * fecha os pools.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(SHUTDOWN);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerPool.close();
+        readPool.close();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.sqlite.Function;
+import org.sqlite.core.Codes;
+import personal.rendimentoacademico.app.model.Grade;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+
+/**
+ * Funções de agregação do SQLite para os índices acadêmicos, registradas em
+ * toda conexão aberta pelo {@link ConnectionProfile}:
+ * <ul>
+ * <li>{@code ira(credits, grade, number [, scale])}: Σ w·c·min(s, 6) / Σ c·min(s, 6)</li>
+ * <li>{@code mp(credits, grade, mandatory [, scale])}: Σ w·c / Σ c sobre as
+ * linhas com mandatory falso, como o AcademicIndexEngine</li>
+ * </ul>
+ * A coluna grade guarda o código da menção, que é o próprio peso. Sem
+ * scale o resultado é REAL; com scale é o INTEGER arredondado do índice
+ * multiplicado por scale, igual ao do AcademicIndexEngine com o mesmo fator.
+ * Linhas com algum argumento NULL (como as de um LEFT JOIN sem matéria) são
+ * ignoradas, e o resultado é NULL quando não há créditos.
+ *
+ * @author henri
+ */
+public final class IndexFunctions {
+    private IndexFunctions() {}
+    
+    public static void register(Connection connection) throws SQLException {
+        Function.create(connection, "ira", new Ira(), -1, Function.FLAG_DETERMINISTIC);
+        Function.create(connection, "mp", new Mp(), -1, Function.FLAG_DETERMINISTIC);
+    }
+    
+    /**
+     * Soma numerador e denominador por grupo. O SQLite clona a instância
+     * registrada para cada grupo, então os campos primitivos não são compartilhados.
+     */
+    private abstract static class WeightedAverage extends Function.Aggregate {
+        private long numerator;
+        private long denominator;
+        private long scale;
+        
+        /**
+         * @return Multiplicador dos créditos da linha; 0 para ignorar a linha
+         */
+        protected abstract int factor(int third) throws SQLException;
+        
+        protected abstract String name();
+        
+        @Override
+        protected void xStep() throws SQLException {
+            int args = args();
+            if (args < 3 || args > 4) {
+                error(String.format("%s() espera 3 ou 4 argumentos", name()));
+                return;
+            }
+            for (int i = 0; i < 3; i++) {
+                if (value_type(i) == Codes.SQLITE_NULL) {
+                    return;
+                }
+            }
+            
+            int credits = value_int(0);
+            int grade = value_int(1);
+            if (Grade.fromDatabaseCode(grade) == null || credits < 0) {
+                error(String.format("%s(): créditos ou menção inválidos", name()));
+                return;
+            }
+            if (args == 4) {
+                scale = value_long(3);
+            }
+            
+            long weightedCredits = (long) credits * factor(value_int(2));
+            numerator += weightedCredits * grade;
+            denominator += weightedCredits;
+        }
+        
+        @Override
+        protected void xFinal() throws SQLException {
+            if (denominator == 0) {
+                result();
+            } else if (scale > 0) {
+                result((numerator * scale + denominator / 2) / denominator);
+            } else {
+                result((double) numerator / denominator);
+            }
+        }
+    }
+    
+    private static class Ira extends WeightedAverage {
+        @Override
+        protected int factor(int semesterNumber) {
+            return IndexAccumulator.semesterFactor(semesterNumber);
+        }
+        
+        @Override
+        protected String name() {
+            return "ira";
+        }
+    }
+    
+    private static class Mp extends WeightedAverage {
+        @Override
+        protected int factor(int mandatory) {
+            return mandatory != 0 ? 0 : 1;
+        }
+        
+        @Override
+        protected String name() {
+            return "mp";
+        }
+    }
+}
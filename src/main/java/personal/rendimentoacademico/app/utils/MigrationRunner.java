@@ -0,0 +1,109 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aplica migrações de esquema versionadas.
+ * A versão atual do banco fica em PRAGMA user_version; cada migração pendente
+ * roda em sua própria transação, junto com a atualização da versão, então uma
+ * falha no meio não deixa o esquema pela metade.
+ *
+ * @author henri
+ */
+public class MigrationRunner {
+    public record Migration(int version, String description, List<String> statements) {
+        public Migration {
+            if (version < 1) {
+                throw new IllegalArgumentException("A versão da migração deve ser positiva.");
+            }
+            statements = List.copyOf(statements);
+        }
+
+        public Migration(int version, String description, String... statements) {
+            this(version, description, List.of(statements));
+        }
+    }
+
+    private final List<Migration> migrations;
+
+    public MigrationRunner(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).version() != i + 1) {
+                throw new IllegalArgumentException(String.format(
+                    "As migrações devem ter versões consecutivas a partir de 1 (encontrada %d na posição %d).",
+                    sorted.get(i).version(), i + 1));
+            }
+        }
+        this.migrations = List.copyOf(sorted);
+    }
+
+    public int getLatestVersion() {
+        return migrations.size();
+    }
+
+    public static int getCurrentVersion(Connection connection) throws SQLException {
+        try (
+            Statement statement = connection.createStatement();
+            ResultSet result = statement.executeQuery("PRAGMA user_version")
+        ) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Aplica, em ordem, as migrações com versão maior que a do banco.
+     * Se o esquema já estiver atualizado nenhum DDL é executado.
+     * @return Quantidade de migrações aplicadas
+     * @throws SQLException se uma migração falhar; ela é desfeita e as
+     * seguintes não são aplicadas
+     */
+    public int migrate(Connection connection) throws SQLException {
+        int current = getCurrentVersion(connection);
+        if (current > getLatestVersion()) {
+            throw new SQLException(String.format(
+                "O banco está na versão %d, mais nova que a suportada (%d).", current, getLatestVersion()));
+        }
+        if (current == getLatestVersion()) {
+            return 0;
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            for (Migration migration : migrations.subList(current, migrations.size())) {
+                apply(connection, migration);
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        return getLatestVersion() - current;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements()) {
+                statement.execute(sql);
+            }
+            // PRAGMA não aceita parâmetros; a versão é um int validado
+            statement.execute("PRAGMA user_version = " + migration.version());
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException(String.format(
+                "Falha ao aplicar a migração %d (%s): %s", migration.version(), migration.description(), e.getMessage()), e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.util.List;
+import personal.rendimentoacademico.app.utils.MigrationRunner.Migration;
+
+/**
+ * Histórico do esquema do banco. Novas alterações entram sempre como uma
+ * nova migração no fim da lista; migrações já publicadas não devem mudar.
+ *
+ * @author henri
+ */
+public final class SchemaMigrations {
+    private SchemaMigrations() {}
+
+    public static final List<Migration> ALL = List.of(
+        // Bancos criados antes das migrações já têm essas tabelas, daí o IF NOT EXISTS
+        new Migration(1, "tabelas semester e subject",
+            """
+            CREATE TABLE IF NOT EXISTS semester (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                number INTEGER NOT NULL,
+                subject_count INTEGER NOT NULL,
+                total_credits INTEGER NOT NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS subject (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                code TEXT,
+                credits INTEGER NOT NULL,
+                grade TEXT NOT NULL,
+                mandatory BOOLEAN NOT NULL,
+                semester_id INTEGER,
+                FOREIGN KEY (semester_id) REFERENCES semester(id)
+            )
+            """
+        ),
+        new Migration(2, "índices de busca por semestre",
+            "CREATE INDEX IF NOT EXISTS idx_subject_semester_id ON subject (semester_id)",
+            "CREATE INDEX IF NOT EXISTS idx_subject_semester_mandatory ON subject (semester_id, mandatory)",
+            // O índice único também atende a paginação por (number, id)
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_semester_number ON semester (number)",
+            "DROP INDEX IF EXISTS idx_semester_number"
+        ),
+        // SQLite não altera o tipo de uma coluna: a tabela é recriada com a
+        // menção como código inteiro (ver Grade.getCode). Textos que não são
+        // menções viram SR e o texto original fica em subject_legacy_grade.
+        new Migration(3, "menção da matéria como código inteiro",
+            """
+            CREATE TABLE subject_legacy_grade (
+                subject_id INTEGER PRIMARY KEY,
+                grade TEXT
+            )
+            """,
+            """
+            INSERT INTO subject_legacy_grade (subject_id, grade)
+            SELECT id, grade FROM subject
+            WHERE grade IS NULL OR grade NOT IN ('SS', 'MS', 'MM', 'MI', 'II', 'SR')
+            """,
+            """
+            CREATE TABLE subject_new (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                code TEXT,
+                credits INTEGER NOT NULL,
+                grade INTEGER NOT NULL CHECK (grade BETWEEN 0 AND 5),
+                mandatory BOOLEAN NOT NULL,
+                semester_id INTEGER,
+                FOREIGN KEY (semester_id) REFERENCES semester(id)
+            )
+            """,
+            """
+            INSERT INTO subject_new (id, name, code, credits, grade, mandatory, semester_id)
+            SELECT id, name, code, credits,
+                CASE grade
+                    WHEN 'SS' THEN 5
+                    WHEN 'MS' THEN 4
+                    WHEN 'MM' THEN 3
+                    WHEN 'MI' THEN 2
+                    WHEN 'II' THEN 1
+                    ELSE 0
+                END,
+                mandatory, semester_id
+            FROM subject
+            """,
+            // Mantém o contador do AUTOINCREMENT para não reaproveitar IDs excluídos
+            "DELETE FROM sqlite_sequence WHERE name = 'subject_new'",
+            "INSERT INTO sqlite_sequence (name, seq) SELECT 'subject_new', seq FROM sqlite_sequence WHERE name = 'subject'",
+            "DROP TABLE subject",
+            "ALTER TABLE subject_new RENAME TO subject",
+            "CREATE INDEX idx_subject_semester_id ON subject (semester_id)",
+            "CREATE INDEX idx_subject_semester_mandatory ON subject (semester_id, mandatory)"
+        ),
+        // Somas do IRA e da MP (ver IndexAccumulator) mantidas por triggers,
+        // para que ler os índices seja a busca de uma única linha. Só contam
+        // matérias cujo semestre existe, pois o peso do IRA depende do número.
+        new Migration(4, "somas incrementais do IRA e da MP",
+            """
+            CREATE TABLE index_sums (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                ira_numerator INTEGER NOT NULL,
+                ira_denominator INTEGER NOT NULL,
+                mp_numerator INTEGER NOT NULL,
+                mp_denominator INTEGER NOT NULL
+            )
+            """,
+            """
+            INSERT INTO index_sums (id, ira_numerator, ira_denominator, mp_numerator, mp_denominator)
+            SELECT 1,
+                COALESCE(SUM(sub.grade * sub.credits * MIN(sem.number, 6)), 0),
+                COALESCE(SUM(sub.credits * MIN(sem.number, 6)), 0),
+                COALESCE(SUM(CASE WHEN sub.mandatory THEN 0 ELSE sub.grade * sub.credits END), 0),
+                COALESCE(SUM(CASE WHEN sub.mandatory THEN 0 ELSE sub.credits END), 0)
+            FROM subject sub
+            JOIN semester sem ON sem.id = sub.semester_id
+            """,
+            """
+            CREATE TRIGGER subject_index_sums_insert AFTER INSERT ON subject
+            BEGIN
+            """ + subjectDelta("NEW", "+") + """
+            END
+            """,
+            """
+            CREATE TRIGGER subject_index_sums_delete AFTER DELETE ON subject
+            BEGIN
+            """ + subjectDelta("OLD", "-") + """
+            END
+            """,
+            """
+            CREATE TRIGGER subject_index_sums_update
+            AFTER UPDATE OF grade, credits, mandatory, semester_id ON subject
+            BEGIN
+            """ + subjectDelta("OLD", "-") + subjectDelta("NEW", "+") + """
+            END
+            """,
+            """
+            CREATE TRIGGER semester_index_sums_insert AFTER INSERT ON semester
+            BEGIN
+            """ + semesterDelta("NEW", "+") + """
+            END
+            """,
+            """
+            CREATE TRIGGER semester_index_sums_delete AFTER DELETE ON semester
+            BEGIN
+            """ + semesterDelta("OLD", "-") + """
+            END
+            """,
+            """
+            CREATE TRIGGER semester_index_sums_update AFTER UPDATE OF number ON semester
+            BEGIN
+            """ + semesterDelta("OLD", "-") + semesterDelta("NEW", "+") + """
+            END
+            """
+        )
+    );
+
+    /**
+     * Soma (ou subtrai) a contribuição de uma linha de subject. Se o
+     * semestre não existir, o FROM não tem linhas e nada muda.
+     * @param row NEW ou OLD
+     * @param sign + ou -
+     */
+    private static String subjectDelta(String row, String sign) {
+        return """
+            UPDATE index_sums SET
+                ira_numerator = index_sums.ira_numerator %2$s delta.ira_numerator,
+                ira_denominator = index_sums.ira_denominator %2$s delta.ira_denominator,
+                mp_numerator = index_sums.mp_numerator %2$s delta.mp_numerator,
+                mp_denominator = index_sums.mp_denominator %2$s delta.mp_denominator
+            FROM (
+                SELECT
+                    %1$s.grade * %1$s.credits * MIN(number, 6) AS ira_numerator,
+                    %1$s.credits * MIN(number, 6) AS ira_denominator,
+                    CASE WHEN %1$s.mandatory THEN 0 ELSE %1$s.grade * %1$s.credits END AS mp_numerator,
+                    CASE WHEN %1$s.mandatory THEN 0 ELSE %1$s.credits END AS mp_denominator
+                FROM semester WHERE id = %1$s.semester_id
+            ) AS delta
+            WHERE index_sums.id = 1;
+            """.formatted(row, sign);
+    }
+
+    /**
+     * Soma (ou subtrai) a contribuição de todas as matérias de um semestre,
+     * usando o índice por semester_id.
+     */
+    private static String semesterDelta(String row, String sign) {
+        return """
+            UPDATE index_sums SET
+                ira_numerator = index_sums.ira_numerator %2$s delta.ira_numerator,
+                ira_denominator = index_sums.ira_denominator %2$s delta.ira_denominator,
+                mp_numerator = index_sums.mp_numerator %2$s delta.mp_numerator,
+                mp_denominator = index_sums.mp_denominator %2$s delta.mp_denominator
+            FROM (
+                SELECT
+                    COALESCE(SUM(grade * credits), 0) * MIN(%1$s.number, 6) AS ira_numerator,
+                    COALESCE(SUM(credits), 0) * MIN(%1$s.number, 6) AS ira_denominator,
+                    COALESCE(SUM(CASE WHEN mandatory THEN 0 ELSE grade * credits END), 0) AS mp_numerator,
+                    COALESCE(SUM(CASE WHEN mandatory THEN 0 ELSE credits END), 0) AS mp_denominator
+                FROM subject WHERE semester_id = %1$s.id
+            ) AS delta
+            WHERE index_sums.id = 1;
+            """.formatted(row, sign);
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Trecho de acesso ao banco executado com uma conexão emprestada.
+ *
+ * @author henri
+ */
+@FunctionalInterface
+public interface SqlFunction<T> {
+    T apply(Connection connection) throws SQLException;
+}
@@ -0,0 +1,17 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.SQLException;
+
+/**
+ * Operação de banco que obtém suas próprias conexões, como os métodos dos DAOs.
+ *
+ * @author henri
+ */
+@FunctionalInterface
+public interface SqlSupplier<T> {
+    T get() throws SQLException;
+}
@@ -0,0 +1,268 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de PreparedStatements de uma conexão física, indexado pelo texto SQL.
+ * <p>
+ * Os statements entregues são proxies: close() limpa os parâmetros, fecha os
+ * ResultSets abertos e devolve o statement ao cache em vez de fechá-lo, então
+ * a próxima chamada com o mesmo SQL reaproveita o plano já compilado. Se o
+ * statement do cache ainda estiver em uso (consultas aninhadas com o mesmo
+ * SQL), um statement avulso é preparado. Os menos usados recentemente são
+ * fechados quando o cache passa da capacidade.
+ *
+ * @author henri
+ */
+final class StatementCache {
+    private record Key(String sql, int autoGeneratedKeys, List<String> columnNames) {}
+
+    private static final int NO_GENERATED_KEYS = -1;
+
+    private final Connection physical;
+    private final int capacity;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final Map<Key, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed;
+
+    StatementCache(Connection physical, int capacity, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Trata uma chamada a prepareStatement feita no proxy da conexão.
+     * Só as variantes (sql), (sql, autoGeneratedKeys) e (sql, columnNames)
+     * passam pelo cache; as demais vão direto para a conexão física.
+     * @param owner Proxy da conexão, devolvido por getConnection()
+     */
+    PreparedStatement prepare(Connection owner, Method method, Object[] args) throws Throwable {
+        Key key = keyOf(args);
+        if (capacity == 0 || key == null) {
+            try {
+                return (PreparedStatement) method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        return checkout(owner, key);
+    }
+
+    private static Key keyOf(Object[] args) {
+        if (args.length == 1) {
+            return new Key((String) args[0], NO_GENERATED_KEYS, List.of());
+        }
+        if (args.length == 2 && args[1] instanceof Integer autoGeneratedKeys) {
+            return new Key((String) args[0], autoGeneratedKeys, List.of());
+        }
+        if (args.length == 2 && args[1] instanceof String[] columnNames) {
+            return new Key((String) args[0], NO_GENERATED_KEYS, List.of(columnNames));
+        }
+        return null;
+    }
+
+    private synchronized PreparedStatement checkout(Connection owner, Key key) throws SQLException {
+        CachedStatement entry = statements.get(key);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+            entry.inUse = true;
+            return entry.lease(owner);
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = prepare(key);
+        if (entry != null) {
+            // O statement do cache está em uso: este é descartado ao fechar
+            return statement;
+        }
+
+        try {
+            entry = new CachedStatement(statement);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            throw e;
+        }
+        entry.inUse = true;
+        statements.put(key, entry);
+        evictEldest();
+        return entry.lease(owner);
+    }
+
+    private PreparedStatement prepare(Key key) throws SQLException {
+        if (!key.columnNames().isEmpty()) {
+            return physical.prepareStatement(key.sql(), key.columnNames().toArray(String[]::new));
+        }
+        if (key.autoGeneratedKeys() != NO_GENERATED_KEYS) {
+            return physical.prepareStatement(key.sql(), key.autoGeneratedKeys());
+        }
+        return physical.prepareStatement(key.sql());
+    }
+
+    private void evictEldest() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (statements.size() > capacity && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            iterator.remove();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void checkin(CachedStatement entry) {
+        try {
+            for (ResultSet result : entry.openResults) {
+                result.close();
+            }
+            entry.reset();
+        } catch (SQLException e) {
+            // Statement em estado desconhecido: não volta para o cache
+            statements.values().remove(entry);
+            entry.evicted = true;
+        } finally {
+            entry.openResults.clear();
+            entry.inUse = false;
+        }
+
+        if (entry.evicted || closed) {
+            closeQuietly(entry.statement);
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Fecha todos os statements do cache. Deve ser chamado antes de fechar a
+     * conexão física.
+     */
+    synchronized void close() {
+        closed = true;
+        for (CachedStatement entry : statements.values()) {
+            if (!entry.inUse) {
+                closeQuietly(entry.statement);
+            }
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.out.println("Erro ao fechar statement do cache! " + e.getMessage());
+        }
+    }
+
+    private final class CachedStatement {
+        private final PreparedStatement statement;
+        private final List<ResultSet> openResults = new ArrayList<>();
+        // Valores do driver, restaurados a cada devolução
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        void reset() throws SQLException {
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.setFetchSize(defaultFetchSize);
+            statement.setMaxRows(defaultMaxRows);
+            statement.setQueryTimeout(defaultQueryTimeout);
+        }
+
+        PreparedStatement lease(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                new LeasedStatementHandler(this, owner)
+            );
+        }
+    }
+
+    private final class LeasedStatementHandler implements InvocationHandler {
+        private final CachedStatement entry;
+        private final Connection owner;
+        private boolean returned;
+
+        LeasedStatementHandler(CachedStatement entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        checkin(entry);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || entry.statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Cached[" + entry.statement + "]";
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("O statement já foi fechado.");
+                    }
+                }
+            }
+
+            Object value;
+            try {
+                value = method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (value instanceof ResultSet result) {
+                entry.openResults.add(result);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Testes para as fachadas assíncronas AsyncSemesterDAO e AsyncSubjectDAO
+ * Testa execução em virtual threads, limite de concorrência e cancelamento
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.ConnectionProfile;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Testes das fachadas assíncronas dos DAOs
+ * Usa um arquivo SQLite temporário configurado no DBUtil
+ */
+public class AsyncDAOTest {
+
+    // Consulta que só termina se for interrompida
+    private static final String ENDLESS_QUERY = """
+        WITH RECURSIVE counter(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM counter)
+        SELECT COUNT(*) FROM counter
+    """;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("async-dao-test");
+        DBUtil.configure(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        DBUtil.initializeDatabase();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        DBUtil.configure(ConnectionProfile.load());
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Deve gravar e ler semestre com matérias de forma assíncrona")
+    public void testSaveAndRead() throws Exception {
+        // Arrange
+        Semester semester = new Semester(1, 2, 8, new ArrayList<>());
+        semester.addSubject(new Subject(0, "Cálculo", "MAT101", 4, "SS", true, 0));
+        semester.addSubject(new Subject(0, "Física", null, 4, "MS", true, 0));
+
+        // Act
+        AsyncSemesterDAO.saveWithSubjects(semester).get(5, TimeUnit.SECONDS);
+        Semester loaded = AsyncSemesterDAO.getById(semester.getId()).get(5, TimeUnit.SECONDS);
+        List<Subject> subjects = AsyncSubjectDAO.getBySemesterId(semester.getId()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNotNull(loaded, "Semestre gravado deve ser encontrado");
+        assertEquals(1, loaded.getNumber());
+        assertEquals(2, subjects.size(), "As duas matérias devem ser gravadas");
+        assertEquals("Cálculo", subjects.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a SQLException da operação pelo future")
+    public void testFailurePropagation() throws Exception {
+        // Act
+        CompletableFuture<Void> future = AsyncSemesterDAO.delete(999);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, exception.getCause(), "A causa deve ser a SQLException do DAO");
+    }
+
+    @Test
+    @DisplayName("Deve limitar as operações simultâneas ao número de conexões")
+    public void testConcurrencyLimit() throws Exception {
+        // Arrange
+        int limit = AsyncDAOSupport.getMaxConcurrency();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < limit * 3; i++) {
+            futures.add(AsyncDAOSupport.run(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(DBUtil.getProfile().poolSize() + 1, limit, "Uma operação por conexão de leitura mais a de escrita");
+        assertEquals(limit, maxRunning.get(), "Não deve passar do limite de concorrência");
+    }
+
+    @Test
+    @DisplayName("Deve cancelar a consulta em andamento e devolver a conexão")
+    public void testCancelRunningQuery() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Long> future = AsyncDAOSupport.supply(() -> {
+            try (Connection connection = DBUtil.getReadConnection();
+                 PreparedStatement statement = connection.prepareStatement(ENDLESS_QUERY)) {
+                started.countDown();
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getLong(1);
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS), "A consulta deve começar");
+        Thread.sleep(200);
+
+        // Act
+        assertTrue(future.cancel(true), "O future deve ser cancelado");
+
+        // Assert
+        assertThrows(CancellationException.class, future::join);
+        var readPool = DBUtil.getExecutor().getReadPool();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (readPool.getInUseCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, readPool.getInUseCount(), "A conexão deve voltar ao pool após o cancelamento");
+        assertEquals(0, AsyncSemesterDAO.getAll().get(5, TimeUnit.SECONDS).size(),
+            "A conexão devolvida deve continuar utilizável");
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Testes para DAOSession
+ * Testa identity map, registro de alterações e gravação em uma única transação
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.ConnectionPool;
+import personal.rendimentoacademico.app.utils.ConnectionProfile;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Testes da sessão de trabalho sobre os DAOs
+ * Usa um arquivo SQLite temporário configurado no DBUtil
+ */
+public class DAOSessionTest {
+
+    private Path directory;
+    private Semester existing;
+
+    @BeforeEach
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("dao-session-test");
+        DBUtil.configure(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        DBUtil.initializeDatabase();
+
+        existing = new Semester(1, 2, 8, new ArrayList<>());
+        existing.addSubject(newSubject("Cálculo", "SS"));
+        existing.addSubject(newSubject("Física", "MS"));
+        SemesterDAO.saveWithSubjects(existing);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        DBUtil.configure(ConnectionProfile.load());
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static Subject newSubject(String name, String grade) {
+        Subject subject = new Subject();
+        subject.setName(name);
+        subject.setCredits(4);
+        subject.setGrade(grade);
+        subject.setMandatory(true);
+        return subject;
+    }
+
+    private static long preparedStatements() throws SQLException {
+        ConnectionPool readPool = DBUtil.getExecutor().getReadPool();
+        return readPool.getStatementCacheHitCount() + readPool.getStatementCacheMissCount();
+    }
+
+    @Test
+    @DisplayName("Deve devolver a mesma instância sem consultar o banco de novo")
+    public void testIdentityMap() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        Semester first = session.getSemester(existing.getId());
+        long queries = preparedStatements();
+
+        // Act
+        Semester second = session.getSemester(existing.getId());
+
+        // Assert
+        assertSame(first, second, "O mesmo ID deve devolver a mesma instância");
+        assertEquals(queries, preparedStatements(), "A segunda busca não deve consultar o banco");
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar as matérias entre o semestre e getSubject")
+    public void testSubjectsShareIdentity() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        Subject loaded = session.getSubject(existing.getSubjects().get(0).getId());
+
+        // Act
+        Semester semester = session.getSemester(existing.getId());
+
+        // Assert
+        assertSame(loaded, semester.getSubjects().get(0), "A matéria já carregada deve ser reaproveitada");
+        assertSame(semester.getSubjects().get(1), session.getSubject(semester.getSubjects().get(1).getId()),
+            "Matérias carregadas pelo semestre entram no identity map");
+    }
+
+    @Test
+    @DisplayName("Deve gravar todas as alterações em uma única transação")
+    public void testCommitInOneTransaction() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        Semester created = new Semester(2, 1, 4, new ArrayList<>());
+        created.addSubject(newSubject("Química", "MM"));
+        session.persist(created);
+
+        Subject extra = newSubject("Álgebra", "SS");
+        extra.setSemesterId(existing.getId());
+        session.persist(extra);
+
+        Semester semester = session.getSemester(existing.getId());
+        Subject calculus = semester.getSubjects().get(0);
+        calculus.setGrade("MI");
+        session.update(calculus);
+        session.remove(semester.getSubjects().get(1));
+
+        long writesBefore = DBUtil.getExecutor().getCommittedWriteCount();
+
+        // Act
+        session.commit();
+
+        // Assert
+        assertEquals(writesBefore + 1, DBUtil.getExecutor().getCommittedWriteCount(), "Deve ser uma única escrita");
+        assertFalse(session.hasPendingChanges(), "Não deve haver pendências após o commit");
+        assertNotNull(created.getId(), "O semestre novo deve receber o ID");
+        assertEquals(created.getId(), created.getSubjects().get(0).getSemesterId(), "A matéria aponta para o semestre novo");
+        assertSame(created, session.getSemester(created.getId()), "O semestre novo entra no identity map");
+
+        List<Subject> stored = SubjectDAO.getBySemesterId(existing.getId());
+        assertEquals(2, stored.size(), "Uma matéria removida e outra adicionada");
+        assertEquals("MI", stored.get(0).getGrade(), "A alteração deve ser gravada");
+        assertEquals("Álgebra", stored.get(1).getName());
+        assertEquals(1, SubjectDAO.getBySemesterId(created.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar nada quando uma das alterações falha")
+    public void testCommitFailureWritesNothing() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        Semester created = new Semester(3, 0, 0, new ArrayList<>());
+        session.persist(created);
+        Subject ghost = new Subject(999, "Fantasma", null, 2, "SS", false, existing.getId());
+        session.update(ghost);
+
+        // Act & Assert
+        assertThrows(SQLException.class, session::commit, "Atualizar matéria inexistente deve falhar");
+        assertNull(created.getId(), "Nenhum ID deve ser atribuído");
+        assertEquals(1, SemesterDAO.getAll().size(), "O semestre novo não deve ser gravado");
+        assertTrue(session.hasPendingChanges(), "As pendências continuam registradas");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar outra instância do mesmo registro")
+    public void testRejectsDuplicateInstance() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        session.getSemester(existing.getId());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> session.update(existing),
+            "Instância carregada fora da sessão não pode substituir a da sessão");
+    }
+
+    @Test
+    @DisplayName("Deve gravar só os campos alterados e ignorar update sem alterações")
+    public void testMinimalUpdate() throws SQLException {
+        // Arrange - duas cópias do mesmo registro, cada uma altera um campo
+        int id = existing.getSubjects().get(0).getId();
+        Subject renamed = SubjectDAO.getById(id);
+        Subject regraded = SubjectDAO.getById(id);
+        renamed.setName("Cálculo I");
+        regraded.setGrade("MI");
+        long writesBefore = DBUtil.getExecutor().getCommittedWriteCount();
+
+        // Act
+        SubjectDAO.update(renamed);
+        SubjectDAO.update(regraded);
+        SubjectDAO.update(regraded);
+        SemesterDAO.update(SemesterDAO.getById(existing.getId()));
+
+        // Assert
+        assertEquals(writesBefore + 2, DBUtil.getExecutor().getCommittedWriteCount(),
+            "Entidades sem alterações não devem gerar escrita");
+        Subject stored = SubjectDAO.getById(id);
+        assertEquals("Cálculo I", stored.getName(), "O nome alterado deve ser mantido");
+        assertEquals("MI", stored.getGrade(), "A segunda escrita não deve sobrescrever o nome");
+        assertFalse(regraded.isDirty(), "A matéria gravada volta a ficar limpa");
+    }
+
+    @Test
+    @DisplayName("Deve gravar no commit as alterações feitas pelos setters sem update")
+    public void testCommitDetectsDirtyEntities() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        Subject subject = session.getSubject(existing.getSubjects().get(0).getId());
+        Semester semester = session.getSemester(existing.getId());
+
+        // Act - alterações só pelos setters, sem chamar update
+        subject.setName("Cálculo I");
+        semester.setNumber(3);
+        assertTrue(session.hasPendingChanges(), "Entidades alteradas contam como pendências");
+        session.commit();
+
+        // Assert
+        assertEquals("Cálculo I", SubjectDAO.getById(subject.getId()).getName(), "A matéria alterada deve ser gravada");
+        assertEquals(3, SemesterDAO.getById(existing.getId()).getNumber(), "O semestre alterado deve ser gravado");
+        assertFalse(session.hasPendingChanges(), "Não deve haver pendências após o commit");
+    }
+
+    @Test
+    @DisplayName("Deve limpar os campos alterados das entidades gravadas sem update")
+    public void testCommitMarksDetectedEntitiesClean() throws SQLException {
+        // Arrange
+        DAOSession session = new DAOSession();
+        Subject subject = session.getSubject(existing.getSubjects().get(0).getId());
+        subject.setName("Cálculo I");
+        session.commit();
+
+        // Act - outra cópia muda o nome; a da sessão só muda a menção
+        Subject other = SubjectDAO.getById(subject.getId());
+        other.setName("Cálculo II");
+        SubjectDAO.update(other);
+        subject.setGrade("MI");
+        SubjectDAO.update(subject);
+
+        // Assert
+        Subject stored = SubjectDAO.getById(subject.getId());
+        assertEquals("Cálculo II", stored.getName(), "O nome já gravado pela sessão não deve ser reescrito");
+        assertEquals("MI", stored.getGrade());
+    }
+}
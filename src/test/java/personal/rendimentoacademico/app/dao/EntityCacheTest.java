@@ -0,0 +1,160 @@
+/*
+ * Testes para EntityCache
+ * Testa LRU, TTL, invalidação e estatísticas do cache dos DAOs
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.ConnectionProfile;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Testes do cache de entidades usado por SemesterDAO e SubjectDAO
+ * Usa um relógio controlado pelo teste para o TTL
+ */
+public class EntityCacheTest {
+
+    private long now;
+    private int loads;
+    private EntityCache<Subject> cache;
+
+    @BeforeEach
+    public void setUp() {
+        now = 0;
+        loads = 0;
+        cache = new EntityCache<>(2, 1000, EntityCacheTest::copy, () -> now);
+    }
+
+    private static Subject copy(Subject subject) {
+        return new Subject(subject.getId(), subject.getName(), subject.getCode(), subject.getCredits(),
+            subject.getGrade(), subject.isMandatory(), subject.getSemesterId());
+    }
+
+    private Subject load(int id) throws SQLException {
+        return cache.getOrLoad(id, () -> {
+            loads++;
+            return new Subject(id, "Matéria " + id, null, 4, "SS", true, 1);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve carregar uma vez e devolver cópias nas próximas buscas")
+    public void testHitReturnsCopy() throws SQLException {
+        // Act
+        Subject first = load(1);
+        first.setName("Alterada fora do cache");
+        Subject second = load(1);
+
+        // Assert
+        assertEquals(1, loads, "A segunda busca não deve carregar");
+        assertNotSame(first, second, "Cada busca deve receber uma cópia");
+        assertEquals("Matéria 1", second.getName(), "Alterar a cópia não altera o cache");
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a entrada usada há mais tempo ao passar do limite")
+    public void testLruEviction() throws SQLException {
+        // Arrange
+        load(1);
+        load(2);
+        load(1); // 2 passa a ser a menos usada
+
+        // Act
+        load(3);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount(), "Uma entrada deve ser descartada");
+        load(1);
+        assertEquals(3, loads, "A entrada 1 deve continuar no cache");
+        load(2);
+        assertEquals(4, loads, "A entrada 2 deve ter sido descartada");
+    }
+
+    @Test
+    @DisplayName("Deve expirar entradas mais antigas que o TTL")
+    public void testTtl() throws SQLException {
+        // Arrange
+        load(1);
+
+        // Act
+        now += TimeUnit.MILLISECONDS.toNanos(999);
+        load(1);
+        now += TimeUnit.MILLISECONDS.toNanos(1);
+        load(1);
+
+        // Assert
+        assertEquals(2, loads, "Deve recarregar só depois do TTL");
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar carga que começou antes de uma invalidação")
+    public void testInvalidationDuringLoad() throws SQLException {
+        // Act - a escrita invalida enquanto a leitura antiga ainda está em andamento
+        cache.getOrLoad(1, () -> {
+            cache.invalidate(1);
+            return new Subject(1, "Versão antiga", null, 4, "SS", true, 1);
+        });
+
+        // Assert
+        assertEquals(0, cache.size(), "A versão antiga não deve entrar no cache");
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache do DAO a cada alteração")
+    public void testDaoInvalidation() throws IOException, SQLException {
+        Path directory = Files.createTempDirectory("entity-cache-test");
+        DBUtil.configure(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        DBUtil.initializeDatabase();
+        SubjectDAO.enableCache(10, 0);
+        try {
+            // Arrange
+            Subject subject = new Subject();
+            subject.setName("Cálculo");
+            subject.setCredits(4);
+            subject.setGrade("SS");
+            subject.setSemesterId(1);
+            SubjectDAO.save(subject);
+            SubjectDAO.getById(subject.getId());
+            SubjectDAO.getById(subject.getId());
+
+            // Act
+            subject.setGrade("MI");
+            SubjectDAO.update(subject);
+            Subject afterUpdate = SubjectDAO.getById(subject.getId());
+            SubjectDAO.delete(subject.getId());
+            Subject afterDelete = SubjectDAO.getById(subject.getId());
+
+            // Assert
+            EntityCache<Subject> daoCache = SubjectDAO.getCache();
+            assertEquals(1, daoCache.getHitCount(), "Só a segunda busca deve vir do cache");
+            assertEquals("MI", afterUpdate.getGrade(), "O update deve invalidar a entrada");
+            assertNull(afterDelete, "O delete deve invalidar a entrada");
+        } finally {
+            SubjectDAO.disableCache();
+            DBUtil.configure(ConnectionProfile.load());
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Testes para IndexSumsDAO
+ * Testa a manutenção incremental das somas do IRA e da MP pelos triggers
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.service.AcademicIndexEngine;
+import personal.rendimentoacademico.app.service.AcademicRecord;
+import personal.rendimentoacademico.app.service.CumulativeIndex;
+import personal.rendimentoacademico.app.utils.ConnectionProfile;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Testes das somas gravadas em index_sums
+ * Usa um arquivo SQLite temporário configurado no DBUtil
+ */
+public class IndexSumsDAOTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("index-sums-test");
+        DBUtil.configure(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        DBUtil.initializeDatabase();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        DBUtil.configure(ConnectionProfile.load());
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static Semester newSemester(int number, Subject... subjects) {
+        return new Semester(number, subjects.length, 0, new ArrayList<>(List.of(subjects)));
+    }
+
+    private static Subject newSubject(int credits, String grade, boolean mandatory) {
+        return new Subject(0, "Matéria", null, credits, grade, mandatory, 0);
+    }
+
+    @Test
+    @DisplayName("Deve manter as somas a cada escrita dos DAOs")
+    public void testSumsFollowWrites() throws SQLException {
+        // Arrange
+        Semester first = newSemester(1, newSubject(4, "SS", true), newSubject(2, "MM", false));
+        Semester seventh = newSemester(7, newSubject(4, "MI", true));
+        SemesterDAO.saveWithSubjects(first);
+        SemesterDAO.saveWithSubjects(seventh);
+
+        // Act - alteração, inclusão, exclusão e troca do número do semestre
+        Subject changed = SubjectDAO.getById(first.getSubjects().get(0).getId());
+        changed.setGrade("MS");
+        SubjectDAO.update(changed);
+        Subject extra = newSubject(6, "SR", false);
+        extra.setSemesterId(seventh.getId());
+        SubjectDAO.save(extra);
+        SubjectDAO.delete(first.getSubjects().get(1).getId());
+        Semester renumbered = SemesterDAO.getById(seventh.getId());
+        renumbered.setNumber(3);
+        SemesterDAO.update(renumbered);
+
+        // Assert
+        IndexAccumulator stored = IndexSumsDAO.load();
+        assertEquals(IndexSumsDAO.recompute(), stored, "As somas incrementais devem bater com o recálculo");
+
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        engine.compute(AcademicRecord.of(SemesterDAO.getAll(SemesterDAO.FetchMode.JOIN)));
+        assertEquals(engine.getIra(), AcademicIndexEngine.ira(stored), "O IRA das somas deve ser o do cálculo completo");
+        assertEquals(engine.getMp(), AcademicIndexEngine.mp(stored));
+    }
+
+    @Test
+    @DisplayName("Deve descontar as matérias de um semestre excluído")
+    public void testSemesterDelete() throws SQLException {
+        // Arrange
+        Semester semester = newSemester(2, newSubject(4, "SS", false));
+        SemesterDAO.saveWithSubjects(semester);
+        SubjectDAO.delete(semester.getSubjects().get(0).getId());
+        SemesterDAO.saveWithSubjects(newSemester(1, newSubject(2, "MM", true)));
+
+        // Act
+        SemesterDAO.delete(semester.getId());
+
+        // Assert
+        assertEquals(new IndexAccumulator(6, 2, 0, 0), IndexSumsDAO.load(), "Só a matéria do 1º semestre deve contar");
+    }
+
+    @Test
+    @DisplayName("Deve calcular no banco a mesma série acumulada do engine")
+    public void testCumulativeSeriesFromDatabase() throws SQLException {
+        // Arrange - semestres gravados fora de ordem e um semestre sem matérias
+        SemesterDAO.saveWithSubjects(newSemester(3, newSubject(4, "MI", true), newSubject(2, "SS", false)));
+        SemesterDAO.saveWithSubjects(newSemester(1, newSubject(6, "SS", true)));
+        SemesterDAO.saveWithSubjects(newSemester(2));
+        SemesterDAO.saveWithSubjects(newSemester(8, newSubject(4, "MM", false)));
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        engine.compute(AcademicRecord.load());
+
+        // Act
+        List<CumulativeIndex> fromDatabase = AcademicIndexEngine.cumulativeSeriesFromDatabase();
+
+        // Assert
+        assertEquals(engine.getCumulativeSeries(), fromDatabase);
+        assertEquals(List.of(1, 3, 8), fromDatabase.stream().map(CumulativeIndex::semesterNumber).toList());
+        assertEquals(engine.getIra(), fromDatabase.get(2).ira(), "O último ponto é o IRA atual");
+    }
+
+    @Test
+    @DisplayName("Deve calcular o IRA e a MP no banco com as funções ira() e mp()")
+    public void testIndexFunctions() throws SQLException {
+        // Arrange
+        SemesterDAO.saveWithSubjects(newSemester(7, newSubject(4, "MI", true), newSubject(2, "SS", false)));
+        SemesterDAO.saveWithSubjects(newSemester(1, newSubject(3, "MS", true), newSubject(4, "MM", false)));
+        SemesterDAO.saveWithSubjects(newSemester(2));
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        engine.compute(AcademicRecord.load());
+
+        // Act
+        Integer[] indices = SemesterDAO.getIndices(AcademicIndexEngine.SCALE);
+        Map<Integer, Integer> bySemester = SemesterDAO.getSemesterIndices(AcademicIndexEngine.SCALE);
+
+        // Assert
+        assertEquals(engine.getIra(), indices[0], "ira() deve arredondar como o engine");
+        assertEquals(engine.getMp(), indices[1], "mp() deve arredondar como o engine");
+        assertEquals(List.of(1, 7), List.copyOf(bySemester.keySet()), "Semestres sem matérias não entram");
+        assertEquals(engine.getSemesterIndex(0), bySemester.get(1));
+        assertEquals(engine.getSemesterIndex(1), bySemester.get(7));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar linhas NULL e devolver NULL sem créditos")
+    public void testIndexFunctionsNulls() throws SQLException {
+        // Arrange - semestre sem matérias gera uma linha NULL no LEFT JOIN
+        SemesterDAO.saveWithSubjects(newSemester(1, newSubject(4, "SS", true)));
+        SemesterDAO.saveWithSubjects(newSemester(2));
+        String sql = """
+            SELECT ira(sub.credits, sub.grade, sem.number) AS ira,
+                mp(sub.credits, sub.grade, sub.mandatory) AS mp
+            FROM semester sem
+            LEFT JOIN subject sub ON sub.semester_id = sem.id
+        """;
+
+        // Act
+        Object ira;
+        Object mp;
+        try (
+            Connection connection = DBUtil.getReadConnection();
+            PreparedStatement statement = connection.prepareStatement(sql);
+            ResultSet result = statement.executeQuery()
+        ) {
+            result.next();
+            ira = result.getObject("ira");
+            mp = result.getObject("mp");
+        }
+
+        // Assert
+        assertEquals(5.0, ira, "Sem escala o resultado é REAL");
+        assertNull(mp, "Só matérias obrigatórias: MP indefinida");
+        assertNull(SemesterDAO.getIndices(AcademicIndexEngine.SCALE)[1]);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Testes para LazySubjectList
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Testes da lista de matérias carregada sob demanda pelo SemesterDAO
+ * O carregamento é simulado para contar as consultas
+ */
+public class LazySubjectListTest {
+
+    private int loads;
+
+    @BeforeEach
+    public void setUp() {
+        loads = 0;
+    }
+
+    private LazySubjectList lazyList() {
+        return new LazySubjectList(() -> {
+            loads++;
+            return List.of(
+                new Subject(1, "Matemática", "MAT101", 4, "SS", true, 1),
+                new Subject(2, "Física", "FIS101", 4, "MS", true, 1)
+            );
+        });
+    }
+
+    @Test
+    @DisplayName("Não deve consultar as matérias enquanto a lista não é acessada")
+    public void testNoLoadWithoutAccess() {
+        // Act
+        Semester semester = new Semester(1, 1, 2, 8, lazyList());
+
+        // Assert
+        assertEquals(2, semester.getSubjectCount(), "Dados do semestre não dependem das matérias");
+        assertEquals(0, loads, "Nenhuma consulta deve ser feita");
+        assertFalse(((LazySubjectList) semester.getSubjects()).isLoaded());
+    }
+
+    @Test
+    @DisplayName("Deve consultar as matérias uma única vez no primeiro acesso")
+    public void testLoadOnce() {
+        // Arrange
+        LazySubjectList subjects = lazyList();
+
+        // Act
+        int size = subjects.size();
+        String first = subjects.get(0).getName();
+        subjects.forEach(Subject::getName);
+
+        // Assert
+        assertEquals(2, size);
+        assertEquals("Matemática", first);
+        assertEquals(1, loads, "A consulta deve ser feita só uma vez");
+        assertTrue(subjects.isLoaded());
+    }
+
+    @Test
+    @DisplayName("Deve permitir alterar a lista depois de carregada")
+    public void testMutation() {
+        // Arrange
+        Semester semester = new Semester(1, 1, 2, 8, lazyList());
+        Subject extra = new Subject(3, "Química", "QUI101", 2, "MM", false, 1);
+
+        // Act
+        semester.addSubject(extra);
+        semester.removeSubject(semester.getSubjects().get(0));
+
+        // Assert
+        assertEquals(2, semester.getSubjects().size(), "Uma matéria adicionada e outra removida");
+        assertEquals("Química", semester.getSubjects().get(1).getName());
+        assertEquals(1, loads, "Alterar deve carregar antes, uma única vez");
+    }
+
+    @Test
+    @DisplayName("Deve lançar UncheckedSQLException quando a consulta falha")
+    public void testLoadFailure() {
+        // Arrange
+        LazySubjectList subjects = new LazySubjectList(() -> {
+            throw new SQLException("banco indisponível");
+        });
+
+        // Act & Assert
+        UncheckedSQLException exception = assertThrows(UncheckedSQLException.class, subjects::size);
+        assertInstanceOf(SQLException.class, exception.getCause(), "A causa deve ser a SQLException original");
+        assertFalse(subjects.isLoaded(), "Uma falha não deve marcar a lista como carregada");
+    }
+}
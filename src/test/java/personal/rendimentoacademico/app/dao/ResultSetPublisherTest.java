@@ -0,0 +1,204 @@
+/*
+ * Testes para ResultSetPublisher
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Testes do publisher usado por SemesterDAO.publish e SubjectDAO.publishAll
+ * Usa banco SQLite em memória e entrega na própria thread, para resultados determinísticos
+ */
+public class ResultSetPublisherTest {
+
+    private static final String SQL = "SELECT id, name, code, credits, grade, mandatory, semester_id FROM subject ORDER BY id";
+
+    private Connection testConnection;
+    private int opened;
+    private int reads;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        testConnection = java.sql.DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute("CREATE TABLE subject (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "name TEXT NOT NULL," +
+                        "code TEXT," +
+                        "credits INTEGER NOT NULL," +
+                        "grade TEXT NOT NULL," +
+                        "mandatory BOOLEAN NOT NULL," +
+                        "semester_id INTEGER)");
+
+            for (int i = 1; i <= 10; i++) {
+                stmt.execute("INSERT INTO subject (name, code, credits, grade, mandatory, semester_id) " +
+                            "VALUES ('Subject " + i + "', NULL, 4, 'SS', 1, 1)");
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        if (testConnection != null && !testConnection.isClosed()) {
+            testConnection.close();
+        }
+    }
+
+    private ResultSetPublisher<Subject> publisher(String sql) {
+        return new ResultSetPublisher<>(() -> {
+            opened++;
+            return openStream(sql);
+        }, Runnable::run);
+    }
+
+    private Stream<Subject> openStream(String sql) throws SQLException {
+        return ResultSetStream.open(testConnection, sql, 1, result -> {
+            reads++;
+            return result.next()
+                ? SubjectDAO.readSubject(result, result.getInt("id"), result.getInt("semester_id"))
+                : null;
+        });
+    }
+
+    /**
+     * Assinante que guarda o que recebe e só pede quando o teste manda.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<Subject> {
+        final List<Subject> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Subject item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler do banco apenas as linhas pedidas")
+    public void testBackpressure() throws SQLException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(SQL).subscribe(subscriber);
+        assertEquals(0, opened, "A consulta só deve abrir no primeiro request");
+
+        // Act
+        subscriber.subscription.request(3);
+
+        // Assert
+        assertEquals(3, subscriber.items.size(), "Deve entregar as 3 linhas pedidas");
+        assertEquals(3, reads, "Não deve ler linhas além da demanda");
+        assertFalse(testConnection.isClosed(), "A conexão continua aberta enquanto houver linhas");
+
+        subscriber.subscription.request(2);
+        assertEquals("Subject 5", subscriber.items.get(4).getName(), "Deve continuar de onde parou");
+        assertEquals(5, reads);
+    }
+
+    @Test
+    @DisplayName("Deve completar e liberar a conexão ao fim das linhas")
+    public void testComplete() throws SQLException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(SQL).subscribe(subscriber);
+
+        // Act
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(10, subscriber.items.size(), "Deve entregar todas as linhas");
+        assertTrue(subscriber.completed, "Deve sinalizar onComplete");
+        assertTrue(testConnection.isClosed(), "Conexão deve ser fechada ao completar");
+    }
+
+    @Test
+    @DisplayName("Deve liberar a conexão imediatamente ao cancelar")
+    public void testCancelReleasesConnection() throws SQLException {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(SQL).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        // Act
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+
+        // Assert
+        assertTrue(testConnection.isClosed(), "Cancelar deve fechar a conexão");
+        assertEquals(1, subscriber.items.size(), "Nada deve ser entregue após o cancelamento");
+        assertFalse(subscriber.completed, "Cancelamento não sinaliza onComplete");
+    }
+
+    @Test
+    @DisplayName("Deve permitir pedir mais linhas de dentro do onNext")
+    public void testRequestFromOnNext() {
+        // Arrange
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Subject item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        publisher(SQL).subscribe(subscriber);
+
+        // Act
+        subscriber.subscription.request(1);
+
+        // Assert
+        assertEquals(10, subscriber.items.size(), "Cada onNext pede a próxima linha");
+        assertTrue(subscriber.completed, "Deve completar ao fim das linhas");
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar onError quando a consulta falha ou o request é inválido")
+    public void testErrors() throws SQLException {
+        // Arrange
+        RecordingSubscriber failing = new RecordingSubscriber();
+        publisher("SELECT * FROM inexistente").subscribe(failing);
+        RecordingSubscriber invalid = new RecordingSubscriber();
+        publisher(SQL).subscribe(invalid);
+
+        // Act
+        failing.subscription.request(1);
+        invalid.subscription.request(0);
+
+        // Assert
+        assertInstanceOf(SQLException.class, failing.error, "Falha ao abrir deve chegar como SQLException");
+        assertInstanceOf(IllegalArgumentException.class, invalid.error, "request(0) viola a especificação");
+    }
+}
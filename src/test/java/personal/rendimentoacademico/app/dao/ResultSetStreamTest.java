@@ -0,0 +1,113 @@
+/*
+ * Testes para ResultSetStream
+ */
+package personal.rendimentoacademico.app.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Testes do stream sobre ResultSet usado por SemesterDAO.stream e SubjectDAO.streamAll
+ * Usa banco SQLite em memória para isolamento completo
+ */
+public class ResultSetStreamTest {
+
+    private static final String SQL = "SELECT id, name, code, credits, grade, mandatory, semester_id FROM subject ORDER BY id";
+
+    private Connection testConnection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        testConnection = java.sql.DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute("CREATE TABLE subject (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "name TEXT NOT NULL," +
+                        "code TEXT," +
+                        "credits INTEGER NOT NULL," +
+                        "grade TEXT NOT NULL," +
+                        "mandatory BOOLEAN NOT NULL," +
+                        "semester_id INTEGER)");
+
+            for (int i = 1; i <= 10; i++) {
+                stmt.execute("INSERT INTO subject (name, code, credits, grade, mandatory, semester_id) " +
+                            "VALUES ('Subject " + i + "', NULL, 4, 'SS', 1, 1)");
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        if (testConnection != null && !testConnection.isClosed()) {
+            testConnection.close();
+        }
+    }
+
+    private static Subject readNext(java.sql.ResultSet result) throws SQLException {
+        return result.next()
+            ? SubjectDAO.readSubject(result, result.getInt("id"), result.getInt("semester_id"))
+            : null;
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todas as linhas e liberar a conexão ao final")
+    public void testReadsAllRows() throws SQLException {
+        // Act
+        List<String> names;
+        try (Stream<Subject> stream = ResultSetStream.open(testConnection, SQL, 4, ResultSetStreamTest::readNext)) {
+            names = stream.map(Subject::getName).collect(Collectors.toList());
+        }
+
+        // Assert
+        assertEquals(10, names.size(), "Deve ler as 10 linhas");
+        assertEquals("Subject 1", names.get(0), "Deve respeitar a ordem da consulta");
+        assertTrue(testConnection.isClosed(), "Conexão deve ser fechada ao fim do stream");
+    }
+
+    @Test
+    @DisplayName("Deve ler apenas as linhas consumidas e fechar ao fechar o stream")
+    public void testLazyAndCloseReleasesConnection() throws SQLException {
+        // Arrange
+        int[] reads = {0};
+        Stream<Subject> stream = ResultSetStream.open(testConnection, SQL, 1, result -> {
+            reads[0]++;
+            return readNext(result);
+        });
+
+        // Act
+        List<Subject> firstTwo = stream.limit(2).collect(Collectors.toList());
+
+        // Assert
+        assertEquals(2, firstTwo.size(), "Deve devolver 2 subjects");
+        assertEquals(2, reads[0], "Apenas as linhas consumidas devem ser lidas");
+        assertFalse(testConnection.isClosed(), "Conexão continua aberta até o stream ser fechado");
+
+        stream.close();
+        assertTrue(testConnection.isClosed(), "Fechar o stream deve liberar a conexão");
+    }
+
+    @Test
+    @DisplayName("Deve fechar a conexão quando a consulta falha ao abrir")
+    public void testCloseOnOpenFailure() throws SQLException {
+        assertThrows(SQLException.class,
+            () -> ResultSetStream.open(testConnection, "SELECT * FROM inexistente", 1, ResultSetStreamTest::readNext),
+            "Consulta inválida deve lançar SQLException");
+        assertTrue(testConnection.isClosed(), "Conexão deve ser fechada após falha");
+    }
+}
@@ -21,6 +21,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.utils.MigrationRunner;
+import personal.rendimentoacademico.app.utils.SchemaMigrations;
 
 /**
  * Testes de integração robustos para SemesterDAO
@@ -185,6 +187,83 @@ public class SemesterDAOTest {
         assertEquals(7, primeiro.getTotalCredits(), "Primeiro semestre deve ter 7 créditos");
     }
     
+    @Test
+    @DisplayName("Deve buscar semestres e matérias em uma única consulta")
+    public void testGetAllJoined() throws SQLException {
+        // Act - Simula SemesterDAO.getAll(FetchMode.JOIN)
+        List<Semester> semesters = new ArrayList<>();
+        String sql = "SELECT s.id AS semester_id, s.number, s.subject_count, s.total_credits, " +
+                     "sub.id AS subject_id, sub.name, sub.code, sub.credits, sub.grade, sub.mandatory " +
+                     "FROM semester s LEFT JOIN subject sub ON sub.semester_id = s.id " +
+                     "ORDER BY s.number, s.id, sub.id";
+        
+        try (var stmt = testConnection.createStatement();
+             var result = stmt.executeQuery(sql)) {
+            
+            Semester current = null;
+            while (result.next()) {
+                int semesterId = result.getInt("semester_id");
+                if (current == null || current.getId() != semesterId) {
+                    current = new Semester(semesterId, result.getInt("number"),
+                        result.getInt("subject_count"), result.getInt("total_credits"), new ArrayList<>());
+                    semesters.add(current);
+                }
+                int subjectId = result.getInt("subject_id");
+                if (!result.wasNull()) {
+                    current.addSubject(SubjectDAO.readSubject(result, subjectId, semesterId));
+                }
+            }
+        }
+        
+        // Assert
+        assertEquals(2, semesters.size(), "Deve retornar 2 semestres");
+        assertEquals(2, semesters.get(0).getSubjects().size(), "Primeiro semestre deve ter 2 subjects");
+        assertEquals("Matemática", semesters.get(0).getSubjects().get(0).getName(), "Subjects devem vir ordenadas por ID");
+        assertEquals(1, semesters.get(0).getSubjects().get(0).getSemesterId(), "Subject deve apontar para o semestre");
+        assertTrue(semesters.get(1).getSubjects().isEmpty(), "Semestre sem subjects deve ter lista vazia");
+    }
+    
+    @Test
+    @DisplayName("Deve paginar semestres por (número, ID) usando o índice")
+    public void testKeysetPageByNumber() throws SQLException {
+        // Arrange - esquema criado pelas migrações, como em produção
+        try (Connection migrated = java.sql.DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            new MigrationRunner(SchemaMigrations.ALL).migrate(migrated);
+            try (Statement stmt = migrated.createStatement()) {
+                for (int number = 1; number <= 4; number++) {
+                    stmt.execute("INSERT INTO semester (number, subject_count, total_credits) VALUES (" + number + ", 0, 0)");
+                }
+            }
+            String sql = "SELECT id, number FROM semester WHERE (number, id) > (?, ?) ORDER BY number, id LIMIT ?";
+            
+            // Act - Simula SemesterDAO.getPageByNumber(2, 2, 2)
+            List<Integer> numbers = new ArrayList<>();
+            try (var stmt = migrated.prepareStatement(sql)) {
+                stmt.setInt(1, 2);
+                stmt.setInt(2, 2);
+                stmt.setInt(3, 2);
+                try (var result = stmt.executeQuery()) {
+                    while (result.next()) {
+                        numbers.add(result.getInt("number"));
+                    }
+                }
+            }
+            
+            // Assert
+            assertEquals(List.of(3, 4), numbers, "Página deve começar depois do cursor");
+            try (var stmt = migrated.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                stmt.setInt(1, 2);
+                stmt.setInt(2, 2);
+                stmt.setInt(3, 2);
+                try (var result = stmt.executeQuery()) {
+                    assertTrue(result.next(), "Plano deve existir");
+                    assertTrue(result.getString("detail").contains("ux_semester_number"),
+                        "Busca deve usar o índice único da migração v2 em vez de varrer a tabela");
+                }
+            }
+        }
+    }
+    
     @Test
     @DisplayName("Deve atualizar semester existente")
     public void testUpdateSemester() throws SQLException {
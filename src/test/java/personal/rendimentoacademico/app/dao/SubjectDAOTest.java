@@ -463,4 +463,83 @@ public class SubjectDAOTest {
             }
         }
     }
+    
+    @Test
+    @DisplayName("Deve inserir subjects em lotes e devolver IDs consecutivos")
+    public void testInsertBatch() throws SQLException {
+        // Arrange
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Subject subject = new Subject();
+            subject.setName("Subject " + i);
+            subject.setCredits(4);
+            subject.setGrade("SS");
+            subject.setMandatory(true);
+            subjects.add(subject);
+        }
+        int previousBatchSize = SubjectDAO.getBatchSize();
+        SubjectDAO.setBatchSize(2);
+        
+        // Act
+        int[] ids;
+        try {
+            testConnection.setAutoCommit(false);
+            ids = SubjectDAO.insertBatch(testConnection, subjects, 2);
+            testConnection.commit();
+            SubjectDAO.assignIds(subjects, ids, 2);
+        } finally {
+            SubjectDAO.setBatchSize(previousBatchSize);
+        }
+        
+        // Assert
+        assertEquals(5, ids.length, "Deve gerar um ID por subject");
+        for (int i = 0; i < subjects.size(); i++) {
+            assertEquals(4 + i, subjects.get(i).getId(), "IDs devem seguir a ordem da lista");
+            assertEquals(2, subjects.get(i).getSemesterId(), "Subject deve apontar para o semestre informado");
+        }
+        
+        String sql = "SELECT name FROM subject WHERE id = ?";
+        try (var stmt = testConnection.prepareStatement(sql)) {
+            stmt.setInt(1, subjects.get(4).getId());
+            try (var result = stmt.executeQuery()) {
+                assertTrue(result.next(), "Último subject deve ser encontrado pelo ID atribuído");
+                assertEquals("Subject 4", result.getString("name"));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Deve rejeitar tamanho de lote inválido")
+    public void testInvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> SubjectDAO.setBatchSize(0),
+            "Tamanho de lote zero deve ser rejeitado");
+    }
+    
+    @Test
+    @DisplayName("Deve desfazer o lote inteiro quando uma inserção falha")
+    public void testInsertBatchRollback() throws SQLException {
+        // Arrange - segundo subject sem nome viola NOT NULL
+        Subject valid = new Subject();
+        valid.setName("Válida");
+        valid.setCredits(2);
+        valid.setGrade("MS");
+        Subject invalid = new Subject();
+        invalid.setCredits(2);
+        invalid.setGrade("MS");
+        
+        // Act
+        testConnection.setAutoCommit(false);
+        assertThrows(SQLException.class,
+            () -> SubjectDAO.insertBatch(testConnection, List.of(valid, invalid), 1),
+            "Lote com subject inválido deve falhar");
+        testConnection.rollback();
+        
+        // Assert
+        assertNull(valid.getId(), "Nenhum ID deve ser atribuído após falha");
+        try (var stmt = testConnection.createStatement();
+             var result = stmt.executeQuery("SELECT COUNT(*) FROM subject")) {
+            result.next();
+            assertEquals(3, result.getInt(1), "Nenhuma linha do lote deve permanecer");
+        }
+    }
 }
@@ -419,4 +419,28 @@ public class SemesterTest {
         subject.setCredits(credits);
         return subject;
     }
+
+    @Test
+    @DisplayName("Deve atualizar as somas dos índices ao adicionar e remover matérias")
+    public void testIndexSums() {
+        // Arrange
+        Semester semester = new Semester(1, 7, 0, 0, new java.util.ArrayList<>());
+        Subject calculus = new Subject(1, "Cálculo", null, 4, "SS", true, 1);
+        Subject elective = new Subject(2, "Música", null, 2, "MM", false, 1);
+        semester.addSubject(calculus);
+        semester.getIndexSums();
+
+        // Act
+        semester.addSubject(elective);
+        IndexAccumulator afterAdd = semester.getIndexSums();
+        semester.removeSubject(calculus);
+        IndexAccumulator afterRemove = semester.getIndexSums();
+
+        // Assert - no 7º semestre o peso do IRA é 6
+        assertEquals(new IndexAccumulator(20 * 6 + 6 * 6, 6 * 6, 6, 2), afterAdd);
+        assertEquals(new IndexAccumulator(6 * 6, 2 * 6, 6, 2), afterRemove);
+        semester.setNumber(2);
+        assertEquals(new IndexAccumulator(6 * 2, 2 * 2, 6, 2), semester.getIndexSums(),
+            "Trocar o número recalcula o peso do semestre");
+    }
 }
@@ -312,4 +312,46 @@ public class SubjectTest {
         assertEquals("F", reprovada.getGrade(), "Nota de reprovação");
         assertTrue(reprovada.isMandatory(), "Subject obrigatória reprovada");
     }
+    
+    @Test
+    @DisplayName("Deve registrar apenas os campos realmente alterados")
+    public void testDirtyFields() {
+        // Arrange
+        Subject loaded = new Subject(1, "Cálculo", "MAT101", 4, "SS", true, 1);
+        loaded.markClean();
+        
+        // Act
+        loaded.setName("Cálculo");
+        loaded.setGrade("MS");
+        loaded.setId(2);
+        
+        // Assert
+        assertTrue(loaded.isDirty(), "Alterar a nota deve marcar a matéria");
+        assertEquals(java.util.Set.of(Subject.Field.GRADE), loaded.getDirtyFields(),
+            "Valor igual e ID não contam como alteração");
+        loaded.markClean();
+        assertFalse(loaded.isDirty(), "markClean deve limpar as alterações");
+        assertTrue(new Subject(1, "Física", null, 4, "MM", false, 1).isDirty(),
+            "Matéria criada pelo construtor completo ainda não foi gravada");
+    }
+    
+    @Test
+    @DisplayName("Deve converter a menção uma vez e usar o peso do enum")
+    public void testGradeWeight() {
+        // Arrange
+        String[] codes = {"SS", "MS", "MM", "MI", "II", "SR"};
+        
+        // Act & Assert
+        for (int i = 0; i < codes.length; i++) {
+            subject.setGrade(codes[i]);
+            assertEquals(Grade.valueOf(codes[i]), subject.getGradeValue(), "A menção deve ser convertida no setter");
+            assertEquals(5 - i, subject.getGradeWeight(), "Peso da menção " + codes[i]);
+        }
+        
+        subject.setGrade("A");
+        assertNull(subject.getGradeValue(), "Texto que não é menção não tem valor");
+        assertEquals("A", subject.getGrade(), "O texto original continua disponível");
+        assertThrows(IllegalArgumentException.class, subject::getGradeWeight, "Menção inválida não tem peso");
+        assertThrows(IllegalArgumentException.class, () -> Grade.parse("X"));
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Testes para AcademicIndexEngine
+ * Testa IRA, MP e índices por semestre em ponto fixo
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+
+/**
+ * Testes do cálculo de índices sobre arrays primitivos
+ */
+public class AcademicIndexEngineTest {
+
+    private AcademicIndexEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new AcademicIndexEngine();
+    }
+
+    @Test
+    @DisplayName("Deve calcular IRA, MP e índices por semestre")
+    public void testKnownRecord() {
+        // Arrange - 1º semestre: SS(4) e MM(2, optativa); 7º semestre: MI(4)
+        int[] credits = {4, 2, 4};
+        int[] weights = {5, 3, 2};
+        int[] semesters = {1, 1, 7};
+        boolean[] mandatory = {true, false, true};
+
+        // Act
+        engine.compute(credits, weights, semesters, mandatory, 3);
+
+        // Assert - IRA = (20 + 6 + 8·6) / (4 + 2 + 4·6) = 74 / 30
+        assertEquals(24667, engine.getIra(), "IRA deve ser 2,4667");
+        assertEquals(30000, engine.getMp(), "MP usa só a optativa");
+        assertEquals(2, engine.getSemesterCount());
+        assertEquals(1, engine.getSemesterNumber(0));
+        assertEquals(43333, engine.getSemesterIndex(0), "Índice do 1º semestre = 26 / 6");
+        assertEquals(7, engine.getSemesterNumber(1));
+        assertEquals(20000, engine.getSemesterIndex(1));
+    }
+
+    @Test
+    @DisplayName("Deve coincidir com o cálculo em ponto flutuante")
+    public void testMatchesFloatingPoint() {
+        // Arrange
+        Random random = new Random(42);
+        int count = 200;
+        int[] credits = new int[count];
+        int[] weights = new int[count];
+        int[] semesters = new int[count];
+        boolean[] mandatory = new boolean[count];
+        double numerator = 0, denominator = 0;
+        for (int i = 0; i < count; i++) {
+            credits[i] = 2 + 2 * random.nextInt(4);
+            weights[i] = random.nextInt(6);
+            semesters[i] = 1 + i / 20;
+            mandatory[i] = random.nextBoolean();
+            int factor = Math.min(semesters[i], 6);
+            numerator += weights[i] * credits[i] * factor;
+            denominator += credits[i] * factor;
+        }
+
+        // Act
+        engine.compute(new AcademicRecord(credits, weights, semesters, mandatory));
+
+        // Assert
+        assertEquals(numerator / denominator, AcademicIndexEngine.toDouble(engine.getIra()), 0.5 / AcademicIndexEngine.SCALE);
+        assertEquals(10, engine.getSemesterCount(), "Um índice por semestre");
+    }
+
+    @Test
+    @DisplayName("Deve montar o histórico a partir dos semestres e reaproveitar a instância")
+    public void testFromSemesters() {
+        // Arrange - semestres fora de ordem são ordenados pelo número
+        Semester second = new Semester(2, 1, 4, new ArrayList<>(List.of(
+            new Subject(2, "Física", null, 4, "MI", true, 2))));
+        Semester first = new Semester(1, 1, 4, new ArrayList<>(List.of(
+            new Subject(1, "Cálculo", null, 4, "SS", true, 1))));
+
+        // Act
+        engine.compute(new int[] {4}, new int[] {0}, new int[] {1}, new boolean[] {false}, 1);
+        engine.compute(AcademicRecord.of(List.of(second, first)));
+
+        // Assert - IRA = (5·4·1 + 2·4·2) / (4 + 8) = 36 / 12
+        assertEquals(30000, engine.getIra());
+        assertEquals(AcademicIndexEngine.UNDEFINED, engine.getMp(), "Sem optativas não há MP");
+        assertEquals(2, engine.getSemesterCount(), "O resultado anterior deve ser descartado");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar valores inválidos e semestres fora de ordem")
+    public void testValidation() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.compute(new int[] {4}, new int[] {6}, new int[] {1}, new boolean[] {true}, 1),
+            "Peso acima de SS");
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.compute(new int[] {4, 4}, new int[] {5, 5}, new int[] {2, 1}, new boolean[] {true, true}, 2),
+            "Semestres fora de ordem");
+        assertThrows(IllegalArgumentException.class,
+            () -> new AcademicRecord(new int[] {4}, new int[] {5, 5}, new int[] {1}, new boolean[] {true}),
+            "Arrays de tamanhos diferentes");
+        engine.compute(new int[0], new int[0], new int[0], new boolean[0], 0);
+        assertEquals(AcademicIndexEngine.UNDEFINED, engine.getIra(), "Histórico vazio não tem IRA");
+        assertTrue(Double.isNaN(AcademicIndexEngine.toDouble(engine.getIra())));
+    }
+
+    @Test
+    @DisplayName("Deve acumular IRA e MP semestre a semestre na mesma passada")
+    public void testCumulativeSeries() {
+        // Act - mesmo histórico de testKnownRecord
+        engine.compute(new int[] {4, 2, 4}, new int[] {5, 3, 2}, new int[] {1, 1, 7}, new boolean[] {true, false, true}, 3);
+
+        // Assert
+        assertEquals(List.of(
+            new CumulativeIndex(1, 43333, 30000),
+            new CumulativeIndex(7, 24667, 30000)
+        ), engine.getCumulativeSeries(), "O último ponto da série é o IRA final");
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Testes para CohortIndexCalculator
+ * Testa o cálculo paralelo de índices de uma turma
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do cálculo de índices de vários históricos com fork/join
+ */
+public class CohortIndexCalculatorTest {
+
+    private static List<AcademicRecord> cohort(int students, long seed) {
+        Random random = new Random(seed);
+        List<AcademicRecord> records = new ArrayList<>();
+        for (int student = 0; student < students; student++) {
+            int size = random.nextInt(60);
+            int[] credits = new int[size];
+            int[] weights = new int[size];
+            int[] semesters = new int[size];
+            boolean[] mandatory = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                credits[i] = 2 + 2 * random.nextInt(3);
+                weights[i] = random.nextInt(6);
+                semesters[i] = 1 + i / 6;
+                mandatory[i] = random.nextInt(4) > 0;
+            }
+            records.add(new AcademicRecord(credits, weights, semesters, mandatory));
+        }
+        return records;
+    }
+
+    @Test
+    @DisplayName("Deve dar o mesmo resultado do cálculo sequencial")
+    public void testMatchesSequential() {
+        // Arrange
+        List<AcademicRecord> records = cohort(1000, 7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Act
+            CohortResult automatic = new CohortIndexCalculator(pool, 0).compute(records);
+            CohortResult fineGrained = new CohortIndexCalculator(pool, 1).compute(records.stream());
+
+            // Assert
+            CohortResult sequential = CohortIndexCalculator.computeSequential(records);
+            assertEquals(sequential, automatic, "A divisão automática não deve mudar o resultado");
+            assertEquals(sequential, fineGrained, "Dividir até um histórico por tarefa não deve mudar o resultado");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter a ordem dos históricos e somar os créditos")
+    public void testOrderAndCredits() {
+        // Arrange
+        AcademicRecord good = new AcademicRecord(new int[] {4, 2}, new int[] {5, 5}, new int[] {1, 1}, new boolean[] {true, false});
+        AcademicRecord empty = new AcademicRecord(new int[0], new int[0], new int[0], new boolean[0]);
+
+        // Act
+        CohortResult result = new CohortIndexCalculator().compute(List.of(good, empty));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(50000, result.getIra(0));
+        assertEquals(6, result.getTotalCredits(0));
+        assertEquals(AcademicIndexEngine.UNDEFINED, result.getIra(1), "Histórico vazio não tem IRA");
+        assertThrows(IllegalArgumentException.class, () -> new CohortIndexCalculator(ForkJoinPool.commonPool(), -1));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Testes para GradeSimulator
+ * Confere cada combinação simulada contra o cálculo completo do histórico
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.model.Grade;
+import personal.rendimentoacademico.app.dao.SemesterDAO;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.ConnectionProfile;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Testes do simulador de menções
+ */
+public class GradeSimulatorTest {
+
+    // Histórico gravado: 1º semestre com SS(4) obrigatória e MM(2) optativa
+    private static final int[] CREDITS = {4, 2};
+    private static final int[] WEIGHTS = {5, 3};
+    private static final int[] SEMESTERS = {1, 1};
+    private static final boolean[] MANDATORY = {true, false};
+
+    private static IndexAccumulator baseSums() {
+        IndexAccumulator sums = new IndexAccumulator();
+        for (int i = 0; i < CREDITS.length; i++) {
+            sums.add(CREDITS[i], WEIGHTS[i], SEMESTERS[i], MANDATORY[i]);
+        }
+        return sums;
+    }
+
+    @Test
+    @DisplayName("Deve dar o mesmo IRA e MP do cálculo completo em cada combinação")
+    public void testMatchesFullRecompute() {
+        // Arrange
+        List<PendingSubject> pending = List.of(
+            new PendingSubject(4, 2, true),
+            new PendingSubject(2, 2, false),
+            new PendingSubject(6, 7, true).withGrades(Grade.SS, Grade.MI)
+        );
+        GradeSimulator simulator = new GradeSimulator(baseSums(), pending);
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        List<String> mismatches = new ArrayList<>();
+        int[] visited = {0};
+
+        // Act
+        simulator.forEach((grades, ira, mp) -> {
+            visited[0]++;
+            int[] weights = {WEIGHTS[0], WEIGHTS[1], grades[0].getWeight(), grades[1].getWeight(), grades[2].getWeight()};
+            engine.compute(new int[] {4, 2, 4, 2, 6}, weights, new int[] {1, 1, 2, 2, 7},
+                new boolean[] {true, false, true, false, true}, 5);
+            if (engine.getIra() != ira || engine.getMp() != mp) {
+                mismatches.add(List.of(grades).toString());
+            }
+        });
+
+        // Assert
+        assertEquals(6 * 6 * 2, visited[0], "Deve visitar todas as combinações");
+        assertEquals(simulator.getScenarioCount(), visited[0]);
+        assertEquals(List.of(), mismatches, "Nenhuma combinação pode divergir do cálculo completo");
+    }
+
+    @Test
+    @DisplayName("Deve montar a distribuição dos índices simulados")
+    public void testDistribution() {
+        // Arrange - uma matéria obrigatória de 4 créditos no 1º semestre, SS ou SR
+        GradeSimulator simulator = new GradeSimulator(baseSums(),
+            List.of(new PendingSubject(4, 1, true).withGrades(Grade.SR, Grade.SS)));
+
+        // Act
+        SimulationResult result = simulator.simulate();
+
+        // Assert - (26 + 0) / 10 e (26 + 20) / 10
+        assertEquals(2, result.scenarios());
+        assertEquals(26000, result.getMinIra());
+        assertEquals(46000, result.getMaxIra());
+        assertEquals(1, result.mpDistribution().size(), "Matéria obrigatória não muda a MP");
+    }
+
+    @Test
+    @DisplayName("Deve simular o próprio histórico sem pendências e limitar as combinações")
+    public void testEdges() {
+        // Act
+        SimulationResult result = new GradeSimulator(baseSums(), List.of()).simulate();
+        List<PendingSubject> tooMany = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tooMany.add(new PendingSubject(4, 3, true));
+        }
+
+        // Assert
+        assertEquals(1, result.scenarios());
+        assertEquals(43333, result.getMaxIra(), "Sem pendências o IRA é o do histórico");
+        assertThrows(IllegalArgumentException.class, () -> new GradeSimulator(baseSums(), tooMany).simulate());
+        assertThrows(IllegalArgumentException.class, () -> new PendingSubject(4, 1, true, List.of()));
+    }
+
+    @Test
+    @DisplayName("Não deve contar duas vezes uma matéria gravada simulada de novo")
+    public void testPersistedPendingSubject() throws IOException, SQLException {
+        Path directory = Files.createTempDirectory("grade-simulator-test");
+        DBUtil.configure(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        DBUtil.initializeDatabase();
+        try {
+            // Arrange - o mesmo histórico de baseSums(), gravado no banco
+            Semester semester = new Semester(1, 2, 6, new ArrayList<>(List.of(
+                new Subject(0, "Cálculo", null, 4, "SS", true, 0),
+                new Subject(0, "Música", null, 2, "MM", false, 0))));
+            SemesterDAO.saveWithSubjects(semester);
+            Subject calculus = semester.getSubjects().get(0);
+
+            // Act
+            GradeSimulator simulator = GradeSimulator.fromDatabase(semester, List.of(calculus));
+            SimulationResult result = simulator.simulate();
+
+            // Assert - só a Cálculo varia; a Música continua com MM
+            IndexAccumulator withoutCalculus = baseSums();
+            withoutCalculus.remove(4, 5, 1, true);
+            assertEquals(withoutCalculus, GradeSimulator.sumsExcluding(List.of(calculus)),
+                "A contribuição gravada deve sair das somas");
+            assertEquals(Grade.values().length, result.scenarios());
+            assertEquals(AcademicIndexEngine.ira(baseSums()), result.getMaxIra(),
+                "Com SS de novo o IRA deve ser o do histórico gravado");
+            assertEquals(AcademicIndexEngine.ira(new IndexAccumulator(6, 6, 6, 2)), result.getMinIra(),
+                "Com SR só a Música pontua");
+        } finally {
+            DBUtil.configure(ConnectionProfile.load());
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+}
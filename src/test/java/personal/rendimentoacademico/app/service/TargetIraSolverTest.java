@@ -0,0 +1,150 @@
+/*
+ * Testes para TargetIraSolver
+ * Confere o branch-and-bound contra a enumeração completa do GradeSimulator
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.dao.SemesterDAO;
+import personal.rendimentoacademico.app.model.Grade;
+import personal.rendimentoacademico.app.model.IndexAccumulator;
+import personal.rendimentoacademico.app.model.Semester;
+import personal.rendimentoacademico.app.model.Subject;
+import personal.rendimentoacademico.app.utils.ConnectionProfile;
+import personal.rendimentoacademico.app.utils.DBUtil;
+
+/**
+ * Testes do solver de IRA alvo
+ */
+public class TargetIraSolverTest {
+
+    private static IndexAccumulator baseSums() {
+        IndexAccumulator sums = new IndexAccumulator();
+        sums.add(4, 3, 1, true);
+        sums.add(6, 2, 2, true);
+        sums.add(2, 4, 2, false);
+        return sums;
+    }
+
+    private static List<PendingSubject> randomPending(int count, long seed) {
+        Random random = new Random(seed);
+        List<PendingSubject> pending = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pending.add(new PendingSubject(2 + 2 * random.nextInt(3), 3 + random.nextInt(5), random.nextBoolean()));
+        }
+        return pending;
+    }
+
+    /** Menor custo entre todas as combinações que alcançam o alvo, ou -1. */
+    private static int bruteForce(IndexAccumulator base, List<PendingSubject> pending, int target) {
+        int[] best = {Integer.MAX_VALUE};
+        new GradeSimulator(base, pending).forEach((grades, ira, mp) -> {
+            if (ira >= target) {
+                int cost = 0;
+                for (Grade grade : grades) {
+                    cost += grade.getWeight();
+                }
+                best[0] = Math.min(best[0], cost);
+            }
+        });
+        return best[0] == Integer.MAX_VALUE ? -1 : best[0];
+    }
+
+    @Test
+    @DisplayName("Deve achar o mesmo custo mínimo da enumeração completa")
+    public void testMatchesBruteForce() {
+        // Arrange
+        List<PendingSubject> pending = randomPending(6, 23);
+        TargetIraSolver solver = new TargetIraSolver(baseSums(), pending);
+
+        // Act & Assert
+        for (int target = 0; target <= 50000; target += 2500) {
+            Optional<TargetIraSolver.Solution> solution = solver.solve(target);
+            int expected = bruteForce(baseSums(), pending, target);
+            assertEquals(expected, solution.map(TargetIraSolver.Solution::cost).orElse(-1), "Custo para o alvo " + target);
+            if (solution.isPresent()) {
+                assertTrue(solution.get().ira() >= target, "A solução deve alcançar o alvo " + target);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve resolver muitas matérias pendentes sem percorrer todas as combinações")
+    public void testPruning() {
+        // Arrange - 14 matérias: 6^14 combinações na enumeração completa
+        TargetIraSolver solver = new TargetIraSolver(baseSums(), randomPending(14, 5));
+
+        // Act
+        Optional<TargetIraSolver.Solution> solution = solver.solve(40000);
+
+        // Assert
+        assertTrue(solution.isPresent(), "O alvo é alcançável");
+        assertTrue(solution.get().ira() >= 40000);
+        assertTrue(solver.getExploredNodes() < 1_000_000, "Explorou " + solver.getExploredNodes() + " nós");
+    }
+
+    @Test
+    @DisplayName("Deve usar as matérias sem menção do semestre e rejeitar alvo inalcançável")
+    public void testFromSemester() {
+        // Arrange - Física ainda sem menção; Cálculo já tem SS
+        Semester semester = new Semester(1, 3, 2, 8, new ArrayList<>(List.of(
+            new Subject(1, "Cálculo", null, 4, "SS", true, 1),
+            new Subject(2, "Física", null, 4, null, true, 1))));
+        IndexAccumulator base = new IndexAccumulator();
+        base.add(4, 5, 3, true);
+        TargetIraSolver solver = new TargetIraSolver(base, PendingSubject.of(semester));
+
+        // Act
+        Optional<TargetIraSolver.Solution> solution = solver.solve(40000);
+
+        // Assert - (60 + 12w) / 24 >= 4 exige w >= 3
+        assertEquals(List.of(Grade.MM), solution.orElseThrow().grades());
+        assertEquals(3, solution.get().cost());
+        assertTrue(solver.solve(50001).isEmpty(), "Nenhuma combinação passa de SS");
+    }
+
+    @Test
+    @DisplayName("Deve resolver matérias gravadas sem contá-las duas vezes")
+    public void testFromDatabaseWithPersistedSubject() throws IOException, SQLException {
+        Path directory = Files.createTempDirectory("target-ira-solver-test");
+        DBUtil.configure(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        DBUtil.initializeDatabase();
+        try {
+            // Arrange - Física gravada com SR; Cálculo gravada com SS
+            Semester semester = new Semester(1, 2, 8, new ArrayList<>(List.of(
+                new Subject(0, "Cálculo", null, 4, "SS", true, 0),
+                new Subject(0, "Física", null, 4, "SR", true, 0))));
+            SemesterDAO.saveWithSubjects(semester);
+            Subject physics = semester.getSubjects().get(1);
+
+            // Act
+            TargetIraSolver solver = TargetIraSolver.fromDatabase(semester, List.of(physics));
+            Optional<TargetIraSolver.Solution> solution = solver.solve(40000);
+
+            // Assert - (20 + 4w) / 8 >= 4 exige w >= 3; contando a SR gravada o denominador seria 12
+            assertEquals(List.of(Grade.MM), solution.orElseThrow().grades());
+            assertEquals(40000, solution.get().ira());
+        } finally {
+            DBUtil.configure(ConnectionProfile.load());
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Testes para WeightedSumKernel
+ * Confere o caminho vetorial contra o escalar e contra o AcademicIndexEngine
+ */
+package personal.rendimentoacademico.app.service;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do kernel de somas ponderadas do IRA
+ * Roda com ou sem a Vector API; sem ela os dois caminhos são o escalar
+ */
+public class WeightedSumKernelTest {
+
+    @Test
+    @DisplayName("Deve dar as mesmas somas do caminho escalar em qualquer tamanho")
+    public void testMatchesScalar() {
+        // Arrange
+        Random random = new Random(21);
+        int size = 1037;
+        int[] credits = new int[size];
+        int[] weights = new int[size];
+        int[] semesters = new int[size];
+        for (int i = 0; i < size; i++) {
+            credits[i] = random.nextInt(1 << 20);
+            weights[i] = random.nextInt(6);
+            semesters[i] = 1 + random.nextInt(12);
+        }
+        long[] kernel = new long[2];
+        long[] scalar = new long[2];
+
+        // Act & Assert - tamanhos que terminam antes, no limite e depois de um vetor cheio
+        for (int count : new int[] {0, 1, 7, 8, 9, 64, 1000, size}) {
+            WeightedSumKernel.iraSums(credits, weights, semesters, count, kernel);
+            WeightedSumKernel.scalarIraSums(credits, weights, semesters, count, scalar);
+            assertArrayEquals(scalar, kernel, "Somas diferentes com " + count + " matérias (vetorial: "
+                + WeightedSumKernel.isVectorized() + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve conferir o IRA do kernel com o do AcademicIndexEngine")
+    public void testCrossCheck() {
+        // Arrange
+        AcademicRecord record = new AcademicRecord(
+            new int[] {4, 2, 4, 6}, new int[] {5, 3, 2, 4}, new int[] {1, 1, 7, 8}, new boolean[] {true, false, true, true});
+        AcademicIndexEngine engine = new AcademicIndexEngine();
+        engine.compute(record);
+
+        // Act & Assert
+        WeightedSumKernel.crossCheck(record);
+        assertEquals(engine.getIra(), WeightedSumKernel.ira(record));
+        assertThrows(IllegalArgumentException.class,
+            () -> WeightedSumKernel.iraSums(new int[1], new int[1], new int[1], 2, new long[2]));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Testes unitários para a classe ConnectionPool
+ * Testa reaproveitamento, limites, validação e estatísticas do pool
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para a classe ConnectionPool
+ * Usa um arquivo SQLite temporário para que as conexões compartilhem o mesmo banco
+ */
+public class ConnectionPoolTest {
+
+    private Path databaseFile;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        databaseFile = Files.createTempFile("pool-test", ".db");
+        pool = new ConnectionPool(
+            () -> DriverManager.getConnection("jdbc:sqlite:" + databaseFile),
+            2, 60_000, 200
+        );
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pool.close();
+        Files.deleteIfExists(databaseFile);
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a conexão física após o close")
+    public void testReuse() throws SQLException {
+        // Arrange
+        Connection first = pool.borrow();
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+
+        // Act
+        Connection second = pool.borrow();
+
+        // Assert
+        assertNotSame(first, second, "Cada empréstimo deve devolver um novo proxy");
+        assertSame(physical, second.unwrap(Connection.class), "A conexão física deve ser reaproveitada");
+        assertTrue(first.isClosed(), "O proxy devolvido deve se apresentar como fechado");
+        assertFalse(second.isClosed(), "O novo proxy deve estar aberto");
+
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar conexões em uso e ociosas")
+    public void testInUseCount() throws SQLException {
+        // Act
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        // Assert
+        assertEquals(2, pool.getInUseCount(), "Duas conexões devem estar em uso");
+        assertEquals(0, pool.getIdleCount(), "Nenhuma conexão deve estar ociosa");
+
+        first.close();
+        first.close(); // fechar duas vezes não deve devolver duas vezes
+        assertEquals(1, pool.getInUseCount(), "Uma conexão deve estar em uso");
+        assertEquals(1, pool.getIdleCount(), "Uma conexão deve estar ociosa");
+
+        second.close();
+        assertEquals(0, pool.getInUseCount(), "Nenhuma conexão deve estar em uso");
+    }
+
+    @Test
+    @DisplayName("Deve esgotar o tempo de espera quando o pool está cheio")
+    public void testBorrowTimeout() throws SQLException {
+        // Arrange
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        // Act & Assert
+        assertThrows(SQLTimeoutException.class, pool::borrow, "O terceiro empréstimo deve esgotar o tempo");
+        assertEquals(1, pool.getBorrowWaitCount(), "A espera deve ser contabilizada");
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Deve descartar conexões inválidas ao emprestar")
+    public void testValidationOnBorrow() throws SQLException {
+        // Arrange - fechar a conexão física por fora do pool
+        Connection first = pool.borrow();
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+        physical.close();
+
+        // Act
+        Connection second = pool.borrow();
+
+        // Assert
+        assertNotSame(physical, second.unwrap(Connection.class), "Uma nova conexão física deve ser aberta");
+        assertTrue(TestDBUtil.isConnectionValid(second), "A nova conexão deve ser válida");
+
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Deve descartar conexões ociosas além do tempo limite")
+    public void testIdleEviction() throws SQLException {
+        // Arrange
+        ConnectionPool shortLived = new ConnectionPool(
+            () -> DriverManager.getConnection("jdbc:sqlite:" + databaseFile),
+            2, 0, 200
+        );
+        Connection connection = shortLived.borrow();
+        Connection physical = connection.unwrap(Connection.class);
+
+        // Act
+        connection.close();
+
+        // Assert
+        assertEquals(0, shortLived.getIdleCount(), "Nenhuma conexão deve permanecer ociosa");
+        assertTrue(physical.isClosed(), "A conexão física deve ser fechada");
+
+        shortLived.close();
+    }
+
+    @Test
+    @DisplayName("Deve desfazer transação pendente ao devolver conexão")
+    public void testRollbackOnRelease() throws SQLException {
+        // Arrange
+        try (Connection connection = pool.borrow(); var stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE item (id INTEGER PRIMARY KEY)");
+        }
+
+        // Act
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        try (var stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO item (id) VALUES (1)");
+        }
+        connection.close();
+
+        // Assert
+        try (Connection check = pool.borrow()) {
+            assertTrue(check.getAutoCommit(), "Autocommit deve ser restaurado");
+            assertEquals(0, TestDBUtil.countRecords(check, "item"), "A inserção deve ser desfeita");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Testes unitários para a classe ConnectionProfile
+ * Testa perfis prontos, leitura de propriedades e aplicação dos pragmas
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+import org.sqlite.SQLiteConfig.TempStore;
+
+/**
+ * Testes unitários para a classe ConnectionProfile
+ * Usa um arquivo SQLite temporário, já que o modo WAL não vale para bancos em memória
+ */
+public class ConnectionProfileTest {
+
+    private Path databaseFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        databaseFile = Files.createTempFile("profile-test", ".db");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(databaseFile);
+        Files.deleteIfExists(Path.of(databaseFile + "-wal"));
+        Files.deleteIfExists(Path.of(databaseFile + "-shm"));
+    }
+
+    private static String pragma(Connection connection, String name) throws SQLException {
+        try (var stmt = connection.createStatement();
+             var result = stmt.executeQuery("PRAGMA " + name)) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve usar o perfil durable sem configuração")
+    public void testDefaultProfile() {
+        // Act
+        ConnectionProfile profile = ConnectionProfile.fromProperties(new Properties());
+
+        // Assert
+        assertEquals(ConnectionProfile.DEFAULT_URL, profile.url(), "URL padrão deve ser mantida");
+        assertEquals(JournalMode.WAL, profile.journalMode(), "Perfil padrão deve usar WAL");
+        assertEquals(SynchronousMode.FULL, profile.synchronous(), "Perfil padrão deve ser durável");
+    }
+
+    @Test
+    @DisplayName("Deve sobrescrever o perfil escolhido com propriedades individuais")
+    public void testPropertiesOverridePreset() {
+        // Arrange
+        Properties properties = new Properties();
+        properties.setProperty("profile", "fast");
+        properties.setProperty("url", "jdbc:sqlite:outro.db");
+        properties.setProperty("busy_timeout", "250");
+        properties.setProperty("temp_store", "file");
+        properties.setProperty("pool_size", "8");
+
+        // Act
+        ConnectionProfile profile = ConnectionProfile.fromProperties(properties);
+
+        // Assert
+        assertEquals("jdbc:sqlite:outro.db", profile.url());
+        assertEquals(SynchronousMode.NORMAL, profile.synchronous(), "Valor do perfil fast deve ser mantido");
+        assertEquals(250, profile.busyTimeout(), "busy_timeout deve ser sobrescrito");
+        assertEquals(TempStore.FILE, profile.tempStore(), "temp_store deve aceitar minúsculas");
+        assertEquals(8, profile.poolSize(), "pool_size deve ser sobrescrito");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar perfil inexistente e URL que não é SQLite")
+    public void testInvalidConfiguration() {
+        Properties unknownProfile = new Properties();
+        unknownProfile.setProperty("profile", "turbo");
+        assertThrows(IllegalArgumentException.class, () -> ConnectionProfile.fromProperties(unknownProfile));
+
+        assertThrows(IllegalArgumentException.class, () -> ConnectionProfile.durable("jdbc:postgresql://localhost/db"));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os pragmas do perfil fast na conexão")
+    public void testFastProfilePragmas() throws SQLException {
+        // Arrange
+        ConnectionProfile profile = ConnectionProfile.fast("jdbc:sqlite:" + databaseFile);
+
+        // Act & Assert
+        try (Connection connection = profile.openConnection()) {
+            assertEquals("wal", pragma(connection, "journal_mode"));
+            assertEquals("1", pragma(connection, "synchronous"), "NORMAL corresponde a 1");
+            assertEquals("-64000", pragma(connection, "cache_size"));
+            assertEquals("2", pragma(connection, "temp_store"), "MEMORY corresponde a 2");
+            assertEquals("5000", pragma(connection, "busy_timeout"));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os pragmas do perfil durable na conexão")
+    public void testDurableProfilePragmas() throws SQLException {
+        // Arrange
+        ConnectionProfile profile = ConnectionProfile.durable("jdbc:sqlite:" + databaseFile);
+
+        // Act & Assert
+        try (Connection connection = profile.openConnection()) {
+            assertEquals("wal", pragma(connection, "journal_mode"));
+            assertEquals("2", pragma(connection, "synchronous"), "FULL corresponde a 2");
+            assertEquals("0", pragma(connection, "mmap_size"));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Testes unitários para a classe DatabaseExecutor
+ * Testa a fila de escrita única, o group commit e as leituras paralelas
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para a classe DatabaseExecutor
+ * Usa um arquivo SQLite temporário em modo WAL
+ */
+public class DatabaseExecutorTest {
+
+    private Path directory;
+    private DatabaseExecutor executor;
+
+    @BeforeEach
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("executor-test");
+        executor = new DatabaseExecutor(ConnectionProfile.durable("jdbc:sqlite:" + directory.resolve("test.db")));
+        executor.write(connection -> {
+            try (var stmt = connection.createStatement()) {
+                stmt.execute("CREATE TABLE item (id INTEGER PRIMARY KEY, value INTEGER NOT NULL)");
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        executor.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static SqlFunction<Void> insert(int value) {
+        return connection -> {
+            try (var stmt = connection.prepareStatement("INSERT INTO item (value) VALUES (?)")) {
+                stmt.setInt(1, value);
+                stmt.executeUpdate();
+            }
+            return null;
+        };
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Espera interrompida.", e);
+        }
+    }
+
+    private int countItems() throws SQLException {
+        try (Connection connection = executor.getReadConnection()) {
+            return TestDBUtil.countRecords(connection, "item");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve agrupar escritas enfileiradas em uma única transação")
+    public void testGroupCommit() throws Exception {
+        // Arrange - a primeira escrita segura a thread escritora
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = executor.submitWrite(connection -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        started.await(5, TimeUnit.SECONDS);
+        long groupsBefore = executor.getCommittedGroupCount();
+
+        // Act
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            writes.add(executor.submitWrite(insert(i)));
+        }
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(10, countItems(), "Todas as escritas devem ser gravadas");
+        assertEquals(groupsBefore + 2, executor.getCommittedGroupCount(),
+            "As 10 escritas enfileiradas devem caber em uma única transação");
+    }
+
+    @Test
+    @DisplayName("Deve desfazer apenas a escrita que falhou dentro do grupo")
+    public void testFailureIsolatedBySavepoint() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submitWrite(connection -> {
+            await(release);
+            return null;
+        });
+
+        // Act
+        CompletableFuture<Void> before = executor.submitWrite(insert(1));
+        CompletableFuture<Void> failing = executor.submitWrite(connection -> {
+            insert(2).apply(connection);
+            throw new SQLException("falha proposital");
+        });
+        CompletableFuture<Void> after = executor.submitWrite(insert(3));
+        release.countDown();
+
+        // Assert
+        before.get(5, TimeUnit.SECONDS);
+        after.get(5, TimeUnit.SECONDS);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, exception.getCause(), "A causa deve ser a SQLException original");
+        assertEquals(2, countItems(), "Apenas a escrita com falha deve ser desfeita");
+    }
+
+    @Test
+    @DisplayName("Deve executar escritas aninhadas na mesma transação")
+    public void testNestedWrite() throws SQLException {
+        // Act
+        executor.write(connection -> {
+            insert(1).apply(connection);
+            return executor.write(insert(2));
+        });
+
+        // Assert
+        assertEquals(2, countItems(), "As duas inserções devem ser gravadas");
+    }
+
+    @Test
+    @DisplayName("Deve entregar conexões de leitura que não aceitam escrita")
+    public void testReadConnectionIsReadOnly() throws SQLException {
+        try (Connection connection = executor.getReadConnection()) {
+            assertThrows(SQLException.class, () -> insert(1).apply(connection),
+                "Conexão de leitura não deve permitir escrita");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve permitir leitura enquanto uma escrita está em andamento")
+    public void testReadDuringWrite() throws Exception {
+        // Arrange
+        executor.write(insert(1));
+        CountDownLatch inTransaction = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> write = executor.submitWrite(connection -> {
+            insert(2).apply(connection);
+            inTransaction.countDown();
+            await(release);
+            return null;
+        });
+        assertTrue(inTransaction.await(5, TimeUnit.SECONDS), "Escrita deve começar");
+
+        // Act & Assert - leitura não espera e não vê a escrita ainda não confirmada
+        assertEquals(1, countItems(), "Leitura deve ver apenas o último commit");
+
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        assertEquals(2, countItems(), "Leitura deve ver a escrita após o commit");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar escritas depois de fechado")
+    public void testWriteAfterClose() {
+        // Act
+        executor.close();
+
+        // Assert
+        assertThrows(SQLException.class, () -> executor.write(insert(1)), "Escrita após close deve falhar");
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Testes unitários para a classe MigrationRunner
+ * Testa aplicação ordenada, versionamento e rollback das migrações
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import personal.rendimentoacademico.app.utils.MigrationRunner.Migration;
+
+/**
+ * Testes unitários para a classe MigrationRunner
+ * Usa banco SQLite em memória para isolamento completo
+ */
+public class MigrationRunnerTest {
+
+    private Connection testConnection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        testConnection = TestDBUtil.createTestConnection();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TestDBUtil.closeTestConnection(testConnection);
+        testConnection = null;
+    }
+
+    private boolean indexExists(String name) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = ?";
+        try (var stmt = testConnection.prepareStatement(sql)) {
+            stmt.setString(1, name);
+            try (var result = stmt.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aplicar todas as migrações em um banco vazio")
+    public void testMigrateEmptyDatabase() throws SQLException {
+        // Arrange
+        MigrationRunner runner = new MigrationRunner(SchemaMigrations.ALL);
+
+        // Act
+        int applied = runner.migrate(testConnection);
+
+        // Assert
+        assertEquals(runner.getLatestVersion(), applied, "Todas as migrações devem ser aplicadas");
+        assertEquals(runner.getLatestVersion(), MigrationRunner.getCurrentVersion(testConnection),
+            "user_version deve refletir a última migração");
+        assertEquals(0, TestDBUtil.countRecords(testConnection, "semester"), "Tabela semester deve existir");
+        assertTrue(indexExists("idx_subject_semester_id"), "Índice por semestre deve existir");
+        assertTrue(indexExists("idx_subject_semester_mandatory"), "Índice composto deve existir");
+        assertTrue(indexExists("ux_semester_number"), "Índice único por número deve existir");
+        assertTrue(testConnection.getAutoCommit(), "Autocommit deve ser restaurado");
+    }
+
+    @Test
+    @DisplayName("Não deve executar DDL quando o esquema está atualizado")
+    public void testMigrateUpToDate() throws SQLException {
+        // Arrange
+        MigrationRunner runner = new MigrationRunner(SchemaMigrations.ALL);
+        runner.migrate(testConnection);
+
+        // Act
+        int applied = runner.migrate(testConnection);
+
+        // Assert
+        assertEquals(0, applied, "Nenhuma migração deve ser reaplicada");
+    }
+
+    @Test
+    @DisplayName("Deve atualizar banco criado antes das migrações")
+    public void testMigrateLegacyDatabase() throws SQLException {
+        // Arrange - banco antigo: tabelas criadas sem versão
+        TestDBUtil.setupCompleteTestDatabase(testConnection);
+
+        // Act
+        new MigrationRunner(SchemaMigrations.ALL).migrate(testConnection);
+
+        // Assert
+        assertEquals(3, TestDBUtil.countRecords(testConnection, "semester"), "Dados existentes devem ser mantidos");
+        assertTrue(indexExists("ux_semester_number"), "Índices devem ser criados no banco antigo");
+    }
+
+    @Test
+    @DisplayName("Deve converter a menção em código inteiro e guardar textos inválidos")
+    public void testMigrateGradeToCode() throws SQLException {
+        // Arrange - banco antigo com uma menção válida e as notas 'A' e 'B' do legado
+        TestDBUtil.setupCompleteTestDatabase(testConnection);
+        try (var stmt = testConnection.createStatement()) {
+            stmt.execute("UPDATE subject SET grade = 'MS' WHERE name = 'Física'");
+        }
+
+        // Act
+        new MigrationRunner(SchemaMigrations.ALL).migrate(testConnection);
+
+        // Assert
+        try (var stmt = testConnection.createStatement();
+             var result = stmt.executeQuery("SELECT name, grade, typeof(grade) FROM subject ORDER BY id")) {
+            assertTrue(result.next());
+            assertEquals("integer", result.getString(3), "A menção deve ser gravada como inteiro");
+            assertEquals(0, result.getInt("grade"), "Texto que não é menção vira SR");
+            assertTrue(result.next());
+            assertEquals(4, result.getInt("grade"), "MS deve virar o código 4");
+        }
+        assertEquals(2, TestDBUtil.countRecords(testConnection, "subject_legacy_grade"),
+            "Os textos não convertidos devem ser guardados");
+        assertTrue(indexExists("idx_subject_semester_id"), "Índices devem ser recriados na nova tabela");
+        try (var stmt = testConnection.createStatement()) {
+            assertThrows(SQLException.class, () -> stmt.execute(
+                "INSERT INTO subject (name, credits, grade, mandatory, semester_id) VALUES ('X', 2, 9, 1, 1)"),
+                "O CHECK deve rejeitar códigos fora da faixa");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a migração que falha e manter a versão anterior")
+    public void testRollbackOnFailure() throws SQLException {
+        // Arrange
+        MigrationRunner runner = new MigrationRunner(List.of(
+            new Migration(1, "tabela", "CREATE TABLE item (id INTEGER PRIMARY KEY)"),
+            new Migration(2, "falha", "CREATE TABLE outro (id INTEGER)", "INSERT INTO inexistente VALUES (1)")
+        ));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> runner.migrate(testConnection), "Migração inválida deve falhar");
+        assertEquals(1, MigrationRunner.getCurrentVersion(testConnection), "Versão deve parar na última migração aplicada");
+
+        try (var stmt = testConnection.createStatement();
+             var result = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master WHERE name = 'outro'")) {
+            result.next();
+            assertEquals(0, result.getInt(1), "DDL da migração com falha deve ser desfeito");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar migrações com versões fora de sequência")
+    public void testNonConsecutiveVersions() {
+        assertThrows(IllegalArgumentException.class, () -> new MigrationRunner(List.of(
+            new Migration(1, "um"),
+            new Migration(3, "três")
+        )), "Lacuna entre versões deve ser rejeitada");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar banco com versão mais nova que a suportada")
+    public void testNewerDatabase() throws SQLException {
+        // Arrange
+        try (var stmt = testConnection.createStatement()) {
+            stmt.execute("PRAGMA user_version = 99");
+        }
+
+        // Act & Assert
+        SQLException exception = assertThrows(SQLException.class,
+            () -> new MigrationRunner(SchemaMigrations.ALL).migrate(testConnection));
+        assertFalse(exception.getMessage().isEmpty(), "Mensagem deve explicar a versão");
+    }
+}
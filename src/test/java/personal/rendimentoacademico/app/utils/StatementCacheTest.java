@@ -0,0 +1,193 @@
+/*
+ * Testes unitários para a classe StatementCache
+ * Testa reaproveitamento, isolamento e descarte dos statements do pool
+ */
+package personal.rendimentoacademico.app.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para a classe StatementCache
+ * Os statements são obtidos pelas conexões de um ConnectionPool, como nos DAOs
+ */
+public class StatementCacheTest {
+
+    private static final String SELECT_ITEM = "SELECT value FROM item WHERE id = ?";
+
+    private Path databaseFile;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() throws IOException, SQLException {
+        databaseFile = Files.createTempFile("statement-cache-test", ".db");
+        pool = new ConnectionPool(
+            () -> DriverManager.getConnection("jdbc:sqlite:" + databaseFile),
+            1, 60_000, 200, 2
+        );
+
+        try (Connection connection = pool.borrow(); var stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE item (id INTEGER PRIMARY KEY, value TEXT)");
+            stmt.execute("INSERT INTO item (id, value) VALUES (1, 'um'), (2, 'dois')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pool.close();
+        Files.deleteIfExists(databaseFile);
+    }
+
+    private static String selectValue(Connection connection, int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ITEM)) {
+            statement.setInt(1, id);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getString(1) : null;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o statement entre empréstimos da conexão")
+    public void testReuseAcrossBorrows() throws SQLException {
+        // Arrange
+        PreparedStatement first;
+        PreparedStatement physical;
+        try (Connection connection = pool.borrow()) {
+            first = connection.prepareStatement(SELECT_ITEM);
+            physical = first.unwrap(PreparedStatement.class);
+            first.close();
+        }
+
+        // Act
+        PreparedStatement second;
+        try (Connection connection = pool.borrow()) {
+            second = connection.prepareStatement(SELECT_ITEM);
+            second.setInt(1, 2);
+            try (ResultSet result = second.executeQuery()) {
+                assertTrue(result.next());
+                assertEquals("dois", result.getString(1), "O statement reaproveitado deve funcionar");
+            }
+            assertSame(connection, second.getConnection(), "getConnection deve devolver o proxy");
+            assertSame(physical, second.unwrap(PreparedStatement.class), "O statement físico deve ser o mesmo");
+            second.close();
+        }
+
+        // Assert
+        assertNotSame(first, second, "Cada uso deve receber um novo proxy");
+        assertEquals(1, pool.getStatementCacheHitCount(), "O segundo prepare deve ser um acerto");
+        assertEquals(1, pool.getStatementCacheMissCount(), "Só o primeiro prepare deve compilar o SQL");
+        assertTrue(first.isClosed(), "O proxy fechado deve se apresentar como fechado");
+        assertThrows(SQLException.class, () -> first.setInt(1, 1), "Proxy fechado não deve ser usado");
+    }
+
+    @Test
+    @DisplayName("Deve preparar statement avulso quando o do cache está em uso")
+    public void testNestedSameSql() throws SQLException {
+        try (Connection connection = pool.borrow();
+             PreparedStatement outer = connection.prepareStatement(SELECT_ITEM)) {
+            outer.setInt(1, 1);
+            try (ResultSet result = outer.executeQuery()) {
+                // Act - mesmo SQL enquanto o primeiro ainda está aberto
+                String inner = selectValue(connection, 2);
+
+                // Assert
+                assertTrue(result.next());
+                assertEquals("um", result.getString(1), "A consulta externa não deve ser afetada");
+                assertEquals("dois", inner, "A consulta interna deve usar outro statement");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve limpar parâmetros e fechar o ResultSet ao devolver o statement")
+    public void testCleanupOnClose() throws SQLException {
+        try (Connection connection = pool.borrow()) {
+            // Arrange
+            PreparedStatement statement = connection.prepareStatement(SELECT_ITEM);
+            statement.setInt(1, 1);
+            ResultSet result = statement.executeQuery();
+
+            // Act
+            statement.close();
+
+            // Assert
+            assertTrue(result.isClosed(), "O ResultSet deixado aberto deve ser fechado");
+            try (PreparedStatement reused = connection.prepareStatement(SELECT_ITEM);
+                 ResultSet empty = reused.executeQuery()) {
+                assertTrue(!empty.next(), "Parâmetros anteriores não devem vazar para o próximo uso");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve restaurar o fetch size padrão ao devolver o statement")
+    public void testFetchSizeReset() throws SQLException {
+        try (Connection connection = pool.borrow()) {
+            // Arrange
+            PreparedStatement statement = connection.prepareStatement(SELECT_ITEM);
+            int defaultFetchSize = statement.getFetchSize();
+            statement.setFetchSize(defaultFetchSize + 50);
+
+            // Act
+            statement.close();
+
+            // Assert
+            try (PreparedStatement reused = connection.prepareStatement(SELECT_ITEM)) {
+                assertEquals(defaultFetchSize, reused.getFetchSize(), "O fetch size não deve vazar para o próximo uso");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve fechar o statement menos usado ao passar da capacidade")
+    public void testEviction() throws SQLException {
+        try (Connection connection = pool.borrow()) {
+            // Arrange
+            PreparedStatement first = connection.prepareStatement("SELECT 1");
+            PreparedStatement physical = first.unwrap(PreparedStatement.class);
+            first.close();
+
+            // Act
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 3").close();
+
+            // Assert
+            assertTrue(physical.isClosed(), "O statement mais antigo deve ser fechado");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve fechar os statements ao fechar o pool")
+    public void testCloseWithPool() throws SQLException {
+        // Arrange
+        PreparedStatement physical;
+        try (Connection connection = pool.borrow()) {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ITEM);
+            physical = statement.unwrap(PreparedStatement.class);
+            statement.close();
+        }
+
+        // Act
+        pool.close();
+
+        // Assert
+        assertTrue(physical.isClosed(), "Statements do cache devem ser fechados com a conexão");
+    }
+}